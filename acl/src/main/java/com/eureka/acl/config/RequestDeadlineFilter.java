@@ -0,0 +1,51 @@
+package com.eureka.acl.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Request Deadline Filter
+ * Drops requests whose X-Request-Deadline (epoch millis, stamped by the gateway
+ * or by calling services) has already passed, before any ACL query runs.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Log4j2
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(DEADLINE_HEADER);
+        if (header != null && isExpired(header)) {
+            log.warn("Dropping request with expired deadline: {} {}", request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Gateway Timeout\",\"message\":\"Request deadline exceeded\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isExpired(String header) {
+        try {
+            return Long.parseLong(header.trim()) <= System.currentTimeMillis();
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed {} header: {}", DEADLINE_HEADER, header);
+            return false;
+        }
+    }
+}
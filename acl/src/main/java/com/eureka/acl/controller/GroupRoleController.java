@@ -1,5 +1,6 @@
 package com.eureka.acl.controller;
 
+import com.eureka.acl.dto.MembershipDelta;
 import com.eureka.acl.dto.GroupRoleAssignRequest;
 import com.eureka.acl.entity.GroupRole;
 import com.eureka.acl.service.AclService;
@@ -50,23 +51,23 @@ public class GroupRoleController {
         return ResponseEntity.ok(groupRole);
     }
 
-    @Operation(summary = "به‌روزرسانی نقش‌های گروه", description = "تمام نقش‌های موجود گروه را حذف کرده و نقش‌های جدید را ایجاد می‌کند")
+    @Operation(summary = "به‌روزرسانی نقش‌های گروه", description = "نقش‌های گروه را با لیست داده‌شده یکسان می‌کند و فقط تفاوت‌ها را اعمال می‌کند")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "نقش‌های گروه با موفقیت به‌روزرسانی شد",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = GroupRole.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = MembershipDelta.class))),
             @ApiResponse(responseCode = "400", description = "درخواست نامعتبر", content = @Content),
             @ApiResponse(responseCode = "404", description = "گروه یافت نشد", content = @Content),
             @ApiResponse(responseCode = "500", description = "خطای داخلی سرور", content = @Content)
     })
     @PutMapping("/group/{groupName}/roles")
-    public ResponseEntity<List<GroupRole>> updateGroupRoles(
+    public ResponseEntity<MembershipDelta> updateGroupRoles(
             @Parameter(description = "نام گروه", required = true) @PathVariable String groupName,
             @Parameter(description = "لیست نام‌های نقش", required = true) @RequestBody List<String> roleNames) {
         
         log.info("Updating roles for group: {} with {} roles", groupName, roleNames.size());
-        List<GroupRole> groupRoles = aclService.updateGroupRoles(groupName, roleNames);
-        log.info("Updated {} roles for group: {}", groupRoles.size(), groupName);
-        return ResponseEntity.ok(groupRoles);
+        MembershipDelta delta = aclService.updateGroupRoles(groupName, roleNames);
+        log.info("Updated roles for group: {} ({} added, {} removed)", groupName, delta.added().size(), delta.removed().size());
+        return ResponseEntity.ok(delta);
     }
 
     @Operation(summary = "دریافت تمام تخصیص‌های گروه-نقش", description = "لیست تمام تخصیص‌های گروه‌ها و نقش‌ها را برمی‌گرداند")
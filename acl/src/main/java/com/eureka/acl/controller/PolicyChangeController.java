@@ -0,0 +1,80 @@
+package com.eureka.acl.controller;
+
+import com.eureka.acl.config.RequestDeadlineFilter;
+import com.eureka.acl.dto.PolicyChanges;
+import com.eureka.acl.service.AclChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * ACL policy change feed for clients that cache permission decisions
+ * Long-polls through the gateway are cut short by the request deadline it stamps (acl route
+ * timeout, 5 s by default); clients that want the full poll time or SSE call ACL directly.
+ */
+@RestController
+@RequestMapping("/api/acl/changes")
+@RequiredArgsConstructor
+@Log4j2
+@Tag(name = "Policy Changes", description = "جریان تغییرات سیاست دسترسی")
+public class PolicyChangeController {
+
+    private final AclChangeFeed aclChangeFeed;
+
+    @Value("${acl.change-feed.max-poll-timeout:60000}")
+    private long maxPollTimeout;
+
+    @Value("${acl.change-feed.deadline-margin:500}")
+    private long deadlineMargin;
+
+    @Operation(summary = "دریافت تغییرات (long-poll)",
+            description = "تغییرات بعد از شماره ترتیبی داده شده را برمی‌گرداند؛ در صورت نبود تغییر تا رسیدن تغییر جدید یا پایان زمان انتظار منتظر می‌ماند")
+    @GetMapping
+    public DeferredResult<PolicyChanges> getChanges(
+            @Parameter(description = "آخرین شماره ترتیبی دریافت شده")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "حداکثر زمان انتظار (میلی‌ثانیه)")
+            @RequestParam(defaultValue = "30000") long timeout,
+            @RequestHeader(value = RequestDeadlineFilter.DEADLINE_HEADER, required = false) Long deadline) {
+        long wait = Math.min(timeout, maxPollTimeout);
+        // Behind the gateway, answer before the route timeout (stamped as the request deadline)
+        if (deadline != null) {
+            wait = Math.min(wait, deadline - System.currentTimeMillis() - deadlineMargin);
+        }
+        // A DeferredResult timeout of 0 means "never" on the servlet container: answer now instead
+        if (wait <= 0) {
+            DeferredResult<PolicyChanges> result = new DeferredResult<>();
+            result.setResult(aclChangeFeed.changesSince(since));
+            return result;
+        }
+        return aclChangeFeed.poll(since, wait);
+    }
+
+    @Operation(summary = "جریان تغییرات (SSE)",
+            description = "تغییرات بعد از شماره ترتیبی داده شده (یا Last-Event-ID) و سپس تغییرات جدید را به صورت Server-Sent Events ارسال می‌کند")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @Parameter(description = "آخرین شماره ترتیبی دریافت شده")
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long position = lastEventId != null ? lastEventId : since != null ? since : 0;
+        log.info("Policy change stream subscription from sequence {}", position);
+        return aclChangeFeed.subscribe(position);
+    }
+
+    @Operation(summary = "وضعیت جریان تغییرات")
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(aclChangeFeed.getStats());
+    }
+}
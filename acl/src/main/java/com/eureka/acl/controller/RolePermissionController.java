@@ -1,5 +1,6 @@
 package com.eureka.acl.controller;
 
+import com.eureka.acl.dto.MembershipDelta;
 import com.eureka.acl.dto.RolePermissionAssignRequest;
 import com.eureka.acl.entity.RolePermission;
 import com.eureka.acl.service.AclService;
@@ -64,23 +65,23 @@ public class RolePermissionController {
         return ResponseEntity.ok(rolePermission);
     }
     
-    @Operation(summary = "به‌روزرسانی دسترسی‌های نقش", description = "تمام دسترسی‌های موجود نقش را حذف کرده و دسترسی‌های جدید را ایجاد می‌کند")
+    @Operation(summary = "به‌روزرسانی دسترسی‌های نقش", description = "دسترسی‌های نقش را با لیست داده‌شده یکسان می‌کند و فقط تفاوت‌ها را اعمال می‌کند")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "دسترسی‌های نقش با موفقیت به‌روزرسانی شد",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = RolePermission.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = MembershipDelta.class))),
             @ApiResponse(responseCode = "400", description = "درخواست نامعتبر", content = @Content),
             @ApiResponse(responseCode = "404", description = "نقش یافت نشد", content = @Content),
             @ApiResponse(responseCode = "500", description = "خطای داخلی سرور", content = @Content)
     })
     @PutMapping("/role/{roleName}/permissions")
-    public ResponseEntity<List<RolePermission>> updateRolePermissions(
+    public ResponseEntity<MembershipDelta> updateRolePermissions(
             @Parameter(description = "نام نقش", required = true) @PathVariable String roleName,
             @Parameter(description = "لیست نام‌های دسترسی", required = true) @RequestBody List<String> permissionNames) {
         
         log.info("Updating permissions for role: {} with {} permissions", roleName, permissionNames.size());
-        List<RolePermission> rolePermissions = aclService.updateRolePermissions(roleName, permissionNames);
-        log.info("Updated {} permissions for role: {}", rolePermissions.size(), roleName);
-        return ResponseEntity.ok(rolePermissions);
+        MembershipDelta delta = aclService.updateRolePermissions(roleName, permissionNames);
+        log.info("Updated permissions for role: {} ({} added, {} removed)", roleName, delta.added().size(), delta.removed().size());
+        return ResponseEntity.ok(delta);
     }
     
     @Operation(
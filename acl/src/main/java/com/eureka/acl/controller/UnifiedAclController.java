@@ -1,14 +1,26 @@
 package com.eureka.acl.controller;
 
+import com.eureka.acl.dto.ApiManifestRequest;
+import com.eureka.acl.dto.EffectivePermissions;
 import com.eureka.acl.entity.ApiPermission;
 import com.eureka.acl.entity.Role;
+import com.eureka.acl.service.AclDecisionCache;
+import com.eureka.acl.service.AclDecisionIndex;
 import com.eureka.acl.service.AclService;
+import com.eureka.acl.service.ApiManifestService;
+import com.eureka.acl.service.EffectivePermissionService;
+import com.eureka.acl.service.ProjectRegistry;
 import com.eureka.acl.service.UnifiedAclService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +37,14 @@ public class UnifiedAclController {
     
     private final UnifiedAclService unifiedAclService;
     private final AclService aclService;
+    private final AclDecisionIndex aclDecisionIndex;
+    private final AclDecisionCache aclDecisionCache;
+    private final EffectivePermissionService effectivePermissionService;
+    private final ProjectRegistry projectRegistry;
+    private final ApiManifestService apiManifestService;
+    
+    @Value("${acl.check.batch.max-size:500}")
+    private int maxBatchSize;
     
     /**
      * Check permission for user
@@ -48,6 +68,13 @@ public class UnifiedAclController {
             return ResponseEntity.badRequest().body(response);
         }
         
+        if (!projectRegistry.contains(projectName)) {
+            log.warn("Permission check for unknown project: {}", projectName);
+            response.put("hasPermission", false);
+            response.put("message", "Unknown project: " + projectName);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        
         boolean hasPermission = unifiedAclService.hasPermission(username, projectName, apiPath, httpMethod, permissionName);
         response.put("hasPermission", hasPermission);
         response.put("message", hasPermission ? "Access granted" : "Access denied");
@@ -55,6 +82,59 @@ public class UnifiedAclController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Check many permissions in one request
+     * Body: {"checks": [{username, projectName, apiPath, httpMethod, resource}, ...]};
+     * the results list holds one boolean per check, in request order
+     */
+    @PostMapping("/check/batch")
+    public ResponseEntity<Map<String, Object>> checkPermissions(@RequestBody Map<String, List<Map<String, String>>> request) {
+        List<Map<String, String>> checks = request.get("checks");
+        Map<String, Object> response = new HashMap<>();
+        
+        if (checks == null || checks.isEmpty()) {
+            response.put("message", "No checks provided");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (checks.size() > maxBatchSize) {
+            response.put("message", "Too many checks in one batch (max " + maxBatchSize + ")");
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        List<AclDecisionCache.Key> keys = new ArrayList<>(checks.size());
+        for (int i = 0; i < checks.size(); i++) {
+            Map<String, String> check = checks.get(i);
+            if (check == null || check.get("username") == null || check.get("projectName") == null
+                    || check.get("apiPath") == null || check.get("httpMethod") == null) {
+                response.put("message", "Missing required parameters in check " + i);
+                return ResponseEntity.badRequest().body(response);
+            }
+            keys.add(new AclDecisionCache.Key(check.get("username"), check.get("projectName"),
+                    check.get("apiPath"), check.get("httpMethod"), check.get("resource")));
+        }
+        
+        log.info("Batch permission check request: {} checks", keys.size());
+        response.put("results", unifiedAclService.hasPermissions(keys));
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Everything the user can currently do, for downstream per-user caching
+     * Clients revalidate with If-None-Match; an unchanged snapshot answers 304 without a query
+     */
+    @GetMapping("/users/{username}/effective-permissions")
+    public ResponseEntity<EffectivePermissions> getEffectivePermissions(@PathVariable String username, WebRequest request) {
+        EffectivePermissionService.Snapshot snapshot = effectivePermissionService.getSnapshot(username);
+        if (request.checkNotModified(snapshot.etag())) {
+            log.debug("Effective permissions not modified for user: {}", username);
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(snapshot.permissions());
+    }
+    
     /**
      * Register new API permission
      */
@@ -100,6 +180,42 @@ public class UnifiedAclController {
             return ResponseEntity.internalServerError().body(response);
         }
     }
+    
+    /**
+     * Register a project's full API manifest in one request
+     * Returns only the difference to what is stored; an unchanged manifest writes nothing
+     */
+    @PostMapping("/register/bulk")
+    public ResponseEntity<Map<String, Object>> registerApiManifest(@RequestBody ApiManifestRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        
+        if (request.projectName() == null || request.apis() == null) {
+            response.put("success", false);
+            response.put("message", "Missing required parameters");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (!projectRegistry.contains(request.projectName())) {
+            response.put("success", false);
+            response.put("message", "Unknown project: " + request.projectName());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        
+        log.info("API manifest registration request: project={}, apis={}", request.projectName(), request.apis().size());
+        try {
+            response.put("success", true);
+            response.put("result", apiManifestService.register(request));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("Error registering API manifest: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", "Failed to register API manifest: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
 
     
     /**
@@ -122,6 +238,22 @@ public class UnifiedAclController {
         return ResponseEntity.ok(publicApis);
     }
     
+    /**
+     * In-memory decision index status
+     */
+    @GetMapping("/index/stats")
+    public ResponseEntity<Map<String, Object>> getIndexStats() {
+        return ResponseEntity.ok(aclDecisionIndex.getStats());
+    }
+    
+    /**
+     * Decision cache statistics and current policy epoch
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getDecisionCacheStats() {
+        return ResponseEntity.ok(aclDecisionCache.getStats());
+    }
+    
     /**
      * Get critical permissions
      */
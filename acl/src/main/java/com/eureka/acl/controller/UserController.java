@@ -1,6 +1,8 @@
 package com.eureka.acl.controller;
 
 import com.eureka.acl.dto.UserCreateRequest;
+import com.eureka.acl.dto.UserPermissionView;
+import com.eureka.acl.dto.UserRoleView;
 import com.eureka.acl.entity.User;
 import com.eureka.acl.service.AclService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -125,13 +127,13 @@ public class UserController {
             description = "لیست تمام مجوزهای یک کاربر خاص را برمی‌گرداند"
     )
     @GetMapping("/{username}/permissions")
-    public ResponseEntity<List<com.eureka.acl.entity.ApiPermission>> getUserPermissions(
+    public ResponseEntity<List<UserPermissionView>> getUserPermissions(
             @Parameter(description = "نام کاربری", required = true)
             @PathVariable String username) {
         
         log.info("Getting permissions for user: {}", username);
         
-        List<com.eureka.acl.entity.ApiPermission> permissions = aclService.getUserPermissions(username);
+        List<UserPermissionView> permissions = aclService.getUserPermissions(username);
         
         log.info("Found {} permissions for user: {}", permissions.size(), username);
         return ResponseEntity.ok(permissions);
@@ -142,13 +144,13 @@ public class UserController {
             description = "لیست تمام نقش‌های یک کاربر خاص را برمی‌گرداند"
     )
     @GetMapping("/{username}/roles")
-    public ResponseEntity<List<com.eureka.acl.entity.Role>> getUserRoles(
+    public ResponseEntity<List<UserRoleView>> getUserRoles(
             @Parameter(description = "نام کاربری", required = true)
             @PathVariable String username) {
         
         log.info("Getting roles for user: {}", username);
         
-        List<com.eureka.acl.entity.Role> roles = aclService.getUserRoles(username);
+        List<UserRoleView> roles = aclService.getUserRoles(username);
         
         log.info("Found {} roles for user: {}", roles.size(), username);
         return ResponseEntity.ok(roles);
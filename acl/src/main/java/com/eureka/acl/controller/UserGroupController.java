@@ -1,5 +1,6 @@
 package com.eureka.acl.controller;
 
+import com.eureka.acl.dto.MembershipDelta;
 import com.eureka.acl.dto.UserGroupAssignRequest;
 import com.eureka.acl.entity.UserGroup;
 import com.eureka.acl.service.AclService;
@@ -50,23 +51,23 @@ public class UserGroupController {
         return ResponseEntity.ok(userGroup);
     }
 
-    @Operation(summary = "به‌روزرسانی گروه‌های کاربر", description = "تمام گروه‌های موجود کاربر را حذف کرده و گروه‌های جدید را ایجاد می‌کند")
+    @Operation(summary = "به‌روزرسانی گروه‌های کاربر", description = "گروه‌های کاربر را با لیست داده‌شده یکسان می‌کند و فقط تفاوت‌ها را اعمال می‌کند")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "گروه‌های کاربر با موفقیت به‌روزرسانی شد",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserGroup.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = MembershipDelta.class))),
             @ApiResponse(responseCode = "400", description = "درخواست نامعتبر", content = @Content),
             @ApiResponse(responseCode = "404", description = "کاربر یافت نشد", content = @Content),
             @ApiResponse(responseCode = "500", description = "خطای داخلی سرور", content = @Content)
     })
     @PutMapping("/user/{username}/groups")
-    public ResponseEntity<List<UserGroup>> updateUserGroups(
+    public ResponseEntity<MembershipDelta> updateUserGroups(
             @Parameter(description = "نام کاربری", required = true) @PathVariable String username,
             @Parameter(description = "لیست نام‌های گروه", required = true) @RequestBody List<String> groupNames) {
         
         log.info("Updating groups for user: {} with {} groups", username, groupNames.size());
-        List<UserGroup> userGroups = aclService.updateUserGroups(username, groupNames);
-        log.info("Updated {} groups for user: {}", userGroups.size(), username);
-        return ResponseEntity.ok(userGroups);
+        MembershipDelta delta = aclService.updateUserGroups(username, groupNames);
+        log.info("Updated groups for user: {} ({} added, {} removed)", username, delta.added().size(), delta.removed().size());
+        return ResponseEntity.ok(delta);
     }
 
     @Operation(summary = "دریافت تمام تخصیص‌های کاربر-گروه", description = "لیست تمام تخصیص‌های کاربران و گروه‌ها را برمی‌گرداند")
@@ -0,0 +1,38 @@
+package com.eureka.acl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk registration: only what differs from the stored permissions
+ * unchanged is true when the manifest hash matched and nothing was written.
+ * notInManifest lists stored APIs missing from the manifest; they are kept, not deleted.
+ */
+@Schema(description = "نتیجه ثبت گروهی API ها")
+public record ApiManifestResult(
+    @Schema(description = "نام پروژه", example = "service1")
+    String projectName,
+    
+    @Schema(description = "هش فهرست API ها")
+    String manifestHash,
+    
+    @Schema(description = "فهرست بدون تغییر بود", example = "false")
+    boolean unchanged,
+    
+    @Schema(description = "API های جدید")
+    List<ApiKey> added,
+    
+    @Schema(description = "API های به‌روزرسانی شده")
+    List<ApiKey> updated,
+    
+    @Schema(description = "API های ثبت شده که در فهرست نیستند")
+    List<ApiKey> notInManifest
+) {
+    
+    public record ApiKey(String name, String apiPath, String httpMethod) {}
+    
+    public static ApiManifestResult unchanged(String projectName, String manifestHash) {
+        return new ApiManifestResult(projectName, manifestHash, true, List.of(), List.of(), List.of());
+    }
+}
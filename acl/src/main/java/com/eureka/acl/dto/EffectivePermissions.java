@@ -0,0 +1,27 @@
+package com.eureka.acl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Snapshot of every permission a user currently holds, for caching by downstream services
+ * The body is pure content; the response ETag (a hash of it) is the snapshot version
+ */
+@Schema(description = "مجوزهای موثر کاربر")
+public record EffectivePermissions(
+    @Schema(description = "نام کاربری", example = "john_doe")
+    String username,
+    
+    @Schema(description = "مجوزهای کاربر")
+    List<Permission> permissions
+) {
+    
+    public record Permission(
+        @Schema(description = "شناسه مجوز", example = "1")
+        Long id,
+        
+        @Schema(description = "نام مجوز", example = "SERVICE1_API_HELLO_GET")
+        String name
+    ) {}
+}
@@ -0,0 +1,31 @@
+package com.eureka.acl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * What a membership update (role permissions, user groups, group roles) actually changed
+ */
+@Schema(description = "تغییرات اعمال‌شده در عضویت")
+public record MembershipDelta(
+    @Schema(description = "نام نقش، کاربر یا گروه به‌روزرسانی‌شده", example = "ADMIN")
+    String subject,
+    
+    @Schema(description = "موارد اضافه‌شده")
+    List<String> added,
+    
+    @Schema(description = "موارد حذف‌شده")
+    List<String> removed,
+    
+    @Schema(description = "تعداد موارد بدون تغییر", example = "12")
+    int unchanged,
+    
+    @Schema(description = "نام‌های یافت‌نشده")
+    List<String> notFound
+) {
+    
+    public boolean hasChanges() {
+        return !added.isEmpty() || !removed.isEmpty();
+    }
+}
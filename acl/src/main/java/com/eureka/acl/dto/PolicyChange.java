@@ -0,0 +1,40 @@
+package com.eureka.acl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * One committed ACL policy change, as published on the change feed
+ * users is null when the affected users are unknown or every user is affected
+ * (for example a public flag change); clients should then drop all cached decisions.
+ */
+@Schema(description = "تغییر سیاست دسترسی")
+public record PolicyChange(
+    @Schema(description = "شماره ترتیبی تغییر", example = "17")
+    long sequence,
+    
+    @Schema(description = "زمان ثبت تغییر (میلی‌ثانیه)", example = "1760000000000")
+    long timestamp,
+    
+    @Schema(description = "نوع تغییر", example = "ROLE")
+    String type,
+    
+    @Schema(description = "شناسه موجودیت تغییر یافته", example = "3")
+    Long subjectId,
+    
+    @Schema(description = "کاربران تحت تاثیر")
+    List<String> users,
+    
+    @Schema(description = "نقش‌های تحت تاثیر")
+    List<Long> roles,
+    
+    @Schema(description = "مجوزهای تحت تاثیر")
+    List<Long> permissions
+) {
+    
+    public static final String TYPE_ROLE = "ROLE";
+    public static final String TYPE_GROUP = "GROUP";
+    public static final String TYPE_USER = "USER";
+    public static final String TYPE_PERMISSION = "PERMISSION";
+}
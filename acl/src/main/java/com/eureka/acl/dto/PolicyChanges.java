@@ -0,0 +1,22 @@
+package com.eureka.acl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Changes after a given sequence number
+ * reset is true when the requested position is no longer in the replay buffer (or belongs
+ * to another instance / an earlier run); the client must drop its cache and resume from sequence.
+ */
+@Schema(description = "تغییرات سیاست دسترسی")
+public record PolicyChanges(
+    @Schema(description = "آخرین شماره ترتیبی", example = "17")
+    long sequence,
+    
+    @Schema(description = "نیاز به بازنشانی کامل کش", example = "false")
+    boolean reset,
+    
+    @Schema(description = "تغییرات")
+    List<PolicyChange> changes
+) {}
@@ -0,0 +1,18 @@
+package com.eureka.acl.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Read projection of a role reachable by a user through its groups
+ */
+@Schema(description = "نقش کاربر")
+public record UserRoleView(
+    @Schema(description = "شناسه نقش", example = "1")
+    Long id,
+    
+    @Schema(description = "نام نقش", example = "ADMIN")
+    String name,
+    
+    @Schema(description = "توضیحات نقش", example = "Administrator role")
+    String description
+) {}
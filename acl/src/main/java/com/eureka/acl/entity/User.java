@@ -1,5 +1,6 @@
 package com.eureka.acl.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -27,11 +28,14 @@ public class User extends Audit {
     @Column
     private String fullName;
     
-    @ManyToMany(fetch = FetchType.EAGER)
+    // Lazy and not serialized: roles/permissions are read through projection queries instead
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "user_groups",
         joinColumns = @JoinColumn(name = "user_id"),
         inverseJoinColumns = @JoinColumn(name = "group_id")
     )
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
     private Set<Group> groups;
 } 
\ No newline at end of file
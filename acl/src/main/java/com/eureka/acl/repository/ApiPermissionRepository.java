@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,10 @@ public interface ApiPermissionRepository extends JpaRepository<ApiPermission, Lo
     @Query("SELECT ap FROM ApiPermission ap WHERE ap.name = :name")
     Optional<ApiPermission> findSingleByName(@Param("name") String name);
     
+    // (id, name) pairs for a set of permission names, resolved in one query
+    @Query("SELECT ap.id, ap.name FROM ApiPermission ap WHERE ap.name IN :names")
+    List<Object[]> findIdsByNames(@Param("names") Collection<String> names);
+    
     // Find by project name
     @Query("SELECT ap FROM ApiPermission ap WHERE ap.project.name = :projectName")
     List<ApiPermission> findByProjectName(@Param("projectName") String projectName);
@@ -38,4 +43,14 @@ public interface ApiPermissionRepository extends JpaRepository<ApiPermission, Lo
     // Find critical permissions
     @Query("SELECT ap FROM ApiPermission ap WHERE ap.isCritical = true")
     List<ApiPermission> findCriticalPermissions();
-}
+    
+    // Index projection: id, project name, API path, HTTP method, permission name, public flag
+    @Query("SELECT ap.id, p.name, ap.apiPath, ap.httpMethod, ap.name, ap.isPublic FROM ApiPermission ap JOIN ap.project p")
+    List<Object[]> findIndexEntries();
+    
+    @Query("SELECT ap.id, p.name, ap.apiPath, ap.httpMethod, ap.name, ap.isPublic FROM ApiPermission ap JOIN ap.project p WHERE ap.id = :id")
+    List<Object[]> findIndexEntry(@Param("id") Long id);
+    
+    @Query("SELECT ap.id, p.name, ap.apiPath, ap.httpMethod, ap.name, ap.isPublic FROM ApiPermission ap JOIN ap.project p WHERE ap.id IN :ids")
+    List<Object[]> findIndexEntriesByIds(@Param("ids") Collection<Long> ids);
+}
\ No newline at end of file
@@ -3,8 +3,10 @@ package com.eureka.acl.repository;
 import com.eureka.acl.entity.Group;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +19,8 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
     
     @Query("SELECT g FROM Group g WHERE g.isActive = true")
     List<Group> findActiveGroups();
+    
+    // (id, name) pairs for a set of group names, resolved in one query
+    @Query("SELECT g.id, g.name FROM Group g WHERE g.name IN :names")
+    List<Object[]> findIdsByNames(@Param("names") Collection<String> names);
 }
@@ -1,8 +1,10 @@
 package com.eureka.acl.repository;
 
+import com.eureka.acl.dto.UserRoleView;
 import com.eureka.acl.entity.Group;
 import com.eureka.acl.entity.GroupRole;
 import com.eureka.acl.entity.Role;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,9 +20,38 @@ public interface GroupRoleRepository extends JpaRepository<GroupRole, Long> {
     
     boolean existsByGroupAndRole(Group group, Role role);
     
+    // Admin listings: load group and role in the same query instead of one select per row
+    @Override
+    @EntityGraph(attributePaths = {"group", "role"})
+    List<GroupRole> findAll();
+    
+    @EntityGraph(attributePaths = {"group", "role"})
     @Query("SELECT gr FROM GroupRole gr WHERE gr.group.id = :groupId")
     List<GroupRole> findByGroupId(@Param("groupId") Long groupId);
     
+    @EntityGraph(attributePaths = {"group", "role"})
     @Query("SELECT gr FROM GroupRole gr WHERE gr.role.id = :roleId")
     List<GroupRole> findByRoleId(@Param("roleId") Long roleId);
-}
+    
+    // Index projection: (group id, role id) pairs
+    @Query("SELECT gr.group.id, gr.role.id FROM GroupRole gr")
+    List<Object[]> findAllGroupRoleIds();
+    
+    @Query("SELECT gr.role.id FROM GroupRole gr WHERE gr.group.id = :groupId")
+    List<Long> findRoleIdsByGroupId(@Param("groupId") Long groupId);
+    
+    // Current (role id, role name) pairs of a group, for membership diffs
+    @Query("SELECT r.id, r.name FROM GroupRole gr JOIN gr.role r WHERE gr.group.id = :groupId")
+    List<Object[]> findRoleNamesByGroupId(@Param("groupId") Long groupId);
+    
+    /**
+     * Roles reachable by a user through its groups, as a flat projection (no entity graph)
+     */
+    @Query("""
+            SELECT DISTINCT new com.eureka.acl.dto.UserRoleView(r.id, r.name, r.description)
+            FROM UserGroup ug, GroupRole gr JOIN gr.role r
+            WHERE gr.group.id = ug.group.id AND ug.user.username = :username
+            ORDER BY r.name
+            """)
+    List<UserRoleView> findRoleViewsByUsername(@Param("username") String username);
+}
\ No newline at end of file
@@ -2,12 +2,18 @@ package com.eureka.acl.repository;
 
 import com.eureka.acl.entity.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
     Optional<Project> findByName(String name);
     Optional<Project> findByBaseUrl(String baseUrl);
+    
+    // Registry projection: (project id, name) pairs
+    @Query("SELECT p.id, p.name FROM Project p")
+    List<Object[]> findAllProjectNames();
 } 
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.eureka.acl.repository;
 
+import com.eureka.acl.dto.UserPermissionView;
 import com.eureka.acl.entity.Role;
 import com.eureka.acl.entity.RolePermission;
 import com.eureka.acl.entity.ApiPermission;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,9 +16,16 @@ import java.util.Optional;
 @Repository
 public interface RolePermissionRepository extends JpaRepository<RolePermission, Long> {
     
+    // Admin listings: load role, permission and project in the same query instead of one select per row
+    @Override
+    @EntityGraph(attributePaths = {"role", "permission", "permission.project"})
+    List<RolePermission> findAll();
+    
+    @EntityGraph(attributePaths = {"role", "permission", "permission.project"})
     @Query("SELECT rp FROM RolePermission rp WHERE rp.role.id = :roleId")
     List<RolePermission> findByRoleId(@Param("roleId") Long roleId);
     
+    @EntityGraph(attributePaths = {"role", "permission", "permission.project"})
     @Query("SELECT rp FROM RolePermission rp WHERE rp.permission.id = :permissionId")
     List<RolePermission> findByPermissionId(@Param("permissionId") Long permissionId);
     
@@ -36,6 +45,85 @@ public interface RolePermissionRepository extends JpaRepository<RolePermission,
     Optional<RolePermission> findByRoleAndPermission(@Param("role") Role role, @Param("permission") ApiPermission permission);
     
     // Find permissions by role
-    @Query("SELECT rp.permission FROM RolePermission rp WHERE rp.role = :role")
+    @Query("SELECT p FROM RolePermission rp JOIN rp.permission p JOIN FETCH p.project WHERE rp.role = :role")
     List<ApiPermission> findPermissionsByRole(@Param("role") Role role);
-} 
\ No newline at end of file
+    
+    // Index projection: (role id, permission id) pairs
+    @Query("SELECT rp.role.id, rp.permission.id FROM RolePermission rp")
+    List<Object[]> findAllRolePermissionIds();
+    
+    @Query("SELECT rp.permission.id FROM RolePermission rp WHERE rp.role.id = :roleId")
+    List<Long> findPermissionIdsByRoleId(@Param("roleId") Long roleId);
+    
+    // Current (permission id, permission name) pairs of a role, for membership diffs
+    @Query("SELECT p.id, p.name FROM RolePermission rp JOIN rp.permission p WHERE rp.role.id = :roleId")
+    List<Object[]> findPermissionNamesByRoleId(@Param("roleId") Long roleId);
+    
+    /**
+     * Single-query permission check: the user needs at least one role through its groups,
+     * then the API must be public or granted to one of those roles
+     */
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1
+                FROM api_permissions ap
+                JOIN projects p ON p.id = ap.project_id
+                WHERE p.name = :projectName
+                  AND ap.api_path = :apiPath
+                  AND ap.http_method = :httpMethod
+                  AND ap.name = :permissionName
+                  AND EXISTS (SELECT 1 FROM users u
+                              JOIN user_groups ug ON ug.user_id = u.id
+                              JOIN group_roles gr ON gr.group_id = ug.group_id
+                              WHERE u.username = :username)
+                  AND (ap.is_public OR EXISTS (
+                              SELECT 1 FROM users u
+                              JOIN user_groups ug ON ug.user_id = u.id
+                              JOIN group_roles gr ON gr.group_id = ug.group_id
+                              JOIN role_permissions rp ON rp.role_id = gr.role_id AND rp.permission_id = ap.id
+                              WHERE u.username = :username))
+            )
+            """, nativeQuery = true)
+    boolean userHasPermission(@Param("username") String username,
+                              @Param("projectName") String projectName,
+                              @Param("apiPath") String apiPath,
+                              @Param("httpMethod") String httpMethod,
+                              @Param("permissionName") String permissionName);
+    
+    /**
+     * Same check by permission name; a name shared by several APIs never matches
+     */
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1
+                FROM api_permissions ap
+                WHERE ap.name = :permissionName
+                  AND NOT EXISTS (SELECT 1 FROM api_permissions other
+                                  WHERE other.name = ap.name AND other.id <> ap.id)
+                  AND EXISTS (SELECT 1 FROM users u
+                              JOIN user_groups ug ON ug.user_id = u.id
+                              JOIN group_roles gr ON gr.group_id = ug.group_id
+                              WHERE u.username = :username)
+                  AND (ap.is_public OR EXISTS (
+                              SELECT 1 FROM users u
+                              JOIN user_groups ug ON ug.user_id = u.id
+                              JOIN group_roles gr ON gr.group_id = ug.group_id
+                              JOIN role_permissions rp ON rp.role_id = gr.role_id AND rp.permission_id = ap.id
+                              WHERE u.username = :username))
+            )
+            """, nativeQuery = true)
+    boolean userHasPermissionByName(@Param("username") String username,
+                                    @Param("permissionName") String permissionName);
+    
+    /**
+     * Permissions granted to a user through groups and roles, as a flat projection
+     */
+    @Query("""
+            SELECT DISTINCT new com.eureka.acl.dto.UserPermissionView(
+                ap.id, ap.name, p.name, ap.apiPath, ap.httpMethod, ap.persianName, ap.isCritical, ap.isPublic)
+            FROM UserGroup ug, GroupRole gr, RolePermission rp JOIN rp.permission ap JOIN ap.project p
+            WHERE gr.group.id = ug.group.id AND rp.role.id = gr.role.id AND ug.user.username = :username
+            ORDER BY p.name, ap.name
+            """)
+    List<UserPermissionView> findPermissionViewsByUsername(@Param("username") String username);
+}
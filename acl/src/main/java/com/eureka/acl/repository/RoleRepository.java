@@ -2,11 +2,19 @@ package com.eureka.acl.repository;
 
 import com.eureka.acl.entity.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
     Optional<Role> findByName(String name);
+    
+    // (id, name) pairs for a set of role names, resolved in one query
+    @Query("SELECT r.id, r.name FROM Role r WHERE r.name IN :names")
+    List<Object[]> findIdsByNames(@Param("names") Collection<String> names);
 } 
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.eureka.acl.repository;
 import com.eureka.acl.entity.Group;
 import com.eureka.acl.entity.User;
 import com.eureka.acl.entity.UserGroup;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,9 +19,27 @@ public interface UserGroupRepository extends JpaRepository<UserGroup, Long> {
     
     boolean existsByUserAndGroup(User user, Group group);
     
+    // Admin listings: load user and group in the same query instead of one select per row
+    @Override
+    @EntityGraph(attributePaths = {"user", "group"})
+    List<UserGroup> findAll();
+    
+    @EntityGraph(attributePaths = {"user", "group"})
     @Query("SELECT ug FROM UserGroup ug WHERE ug.user.id = :userId")
     List<UserGroup> findByUserId(@Param("userId") Long userId);
     
+    @EntityGraph(attributePaths = {"user", "group"})
     @Query("SELECT ug FROM UserGroup ug WHERE ug.group.id = :groupId")
     List<UserGroup> findByGroupId(@Param("groupId") Long groupId);
-}
+    
+    // Index projection: (user id, group id) pairs
+    @Query("SELECT ug.user.id, ug.group.id FROM UserGroup ug")
+    List<Object[]> findAllUserGroupIds();
+    
+    @Query("SELECT ug.group.id FROM UserGroup ug WHERE ug.user.id = :userId")
+    List<Long> findGroupIdsByUserId(@Param("userId") Long userId);
+    
+    // Current (group id, group name) pairs of a user, for membership diffs
+    @Query("SELECT g.id, g.name FROM UserGroup ug JOIN ug.group g WHERE ug.user.id = :userId")
+    List<Object[]> findGroupNamesByUserId(@Param("userId") Long userId);
+}
\ No newline at end of file
@@ -2,11 +2,21 @@ package com.eureka.acl.repository;
 
 import com.eureka.acl.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
-} 
\ No newline at end of file
+    
+    // Index projection: (user id, username) pairs
+    @Query("SELECT u.id, u.username FROM User u")
+    List<Object[]> findAllUsernames();
+    
+    @Query("SELECT u.username FROM User u WHERE u.id = :id")
+    Optional<String> findUsernameById(@Param("id") Long id);
+}
\ No newline at end of file
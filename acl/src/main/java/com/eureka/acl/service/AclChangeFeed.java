@@ -0,0 +1,182 @@
+package com.eureka.acl.service;
+
+import com.eureka.acl.dto.PolicyChange;
+import com.eureka.acl.dto.PolicyChanges;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ordered feed of committed ACL policy changes
+ * AclDecisionIndex publishes one change per committed write. The last buffer-size changes
+ * are kept for replay; clients follow the feed over Server-Sent Events or long-poll with
+ * since=<sequence>. Sequence numbers start at the startup time (ms * 1000), so they keep
+ * increasing across restarts and a position from an earlier run is answered with reset.
+ *
+ * SSE events are written by a single feed thread in sequence order, so a slow client never
+ * delays the committing request.
+ */
+@Component
+@Log4j2
+public class AclChangeFeed {
+
+    private final Deque<PolicyChange> buffer = new ArrayDeque<>();
+    private final List<Waiter> waiters = new ArrayList<>();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "acl-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${acl.change-feed.buffer-size:1000}")
+    private int bufferSize;
+
+    @Value("${acl.change-feed.sse-timeout:1800000}")
+    private long sseTimeout;
+
+    private long sequence = System.currentTimeMillis() * 1000;
+
+    public void publish(String type, Long subjectId, Collection<String> users,
+                        Collection<Long> roles, Collection<Long> permissions) {
+        List<Waiter> ready;
+        PolicyChange change;
+        synchronized (this) {
+            change = new PolicyChange(++sequence, System.currentTimeMillis(), type, subjectId,
+                    users == null ? null : List.copyOf(users), List.copyOf(roles), List.copyOf(permissions));
+            buffer.addLast(change);
+            if (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+            ready = new ArrayList<>(waiters);
+            waiters.clear();
+            if (!emitters.isEmpty()) {
+                sender.execute(() -> emitters.forEach(emitter -> send(emitter, change)));
+            }
+        }
+        ready.forEach(waiter -> waiter.result().setResult(changesSince(waiter.since())));
+        log.debug("ACL change feed: published {} {} as sequence {}", type, subjectId, change.sequence());
+    }
+
+    public synchronized PolicyChanges changesSince(long since) {
+        if (since == sequence) {
+            return new PolicyChanges(sequence, false, List.of());
+        }
+        PolicyChange oldest = buffer.peekFirst();
+        if (since > sequence || oldest == null || since < oldest.sequence() - 1) {
+            return new PolicyChanges(sequence, true, List.of());
+        }
+        List<PolicyChange> changes = buffer.stream()
+                .filter(change -> change.sequence() > since)
+                .toList();
+        return new PolicyChanges(sequence, false, changes);
+    }
+
+    /**
+     * Answers immediately when there are changes after since, otherwise when the next change
+     * is published or the timeout elapses (with an empty list)
+     */
+    public DeferredResult<PolicyChanges> poll(long since, long timeoutMillis) {
+        DeferredResult<PolicyChanges> result = new DeferredResult<>(timeoutMillis);
+        synchronized (this) {
+            PolicyChanges available = changesSince(since);
+            if (available.reset() || !available.changes().isEmpty()) {
+                result.setResult(available);
+                return result;
+            }
+            Waiter waiter = new Waiter(since, result);
+            waiters.add(waiter);
+            result.onTimeout(() -> {
+                removeWaiter(waiter);
+                result.setResult(changesSince(since));
+            });
+            result.onCompletion(() -> removeWaiter(waiter));
+        }
+        return result;
+    }
+
+    /**
+     * Replays the buffered changes after since, then streams new ones
+     * A reset is sent as a "reset" event carrying the current sequence
+     */
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(sseTimeout);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+        synchronized (this) {
+            PolicyChanges replay = changesSince(since);
+            // Queued under the lock, so the replay is written before any newer change
+            sender.execute(() -> {
+                try {
+                    if (replay.reset()) {
+                        emitter.send(SseEmitter.event().name("reset").id(String.valueOf(replay.sequence()))
+                                .data(Map.of("sequence", replay.sequence())));
+                    }
+                    for (PolicyChange change : replay.changes()) {
+                        emitter.send(event(change));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    emitters.remove(emitter);
+                }
+            });
+            emitters.add(emitter);
+        }
+        return emitter;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sequence", sequence);
+        stats.put("buffered", buffer.size());
+        stats.put("bufferSize", bufferSize);
+        stats.put("oldestSequence", buffer.isEmpty() ? null : buffer.peekFirst().sequence());
+        stats.put("sseSubscribers", emitters.size());
+        stats.put("longPollWaiters", waiters.size());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        emitters.forEach(SseEmitter::complete);
+    }
+
+    private void send(SseEmitter emitter, PolicyChange change) {
+        try {
+            emitter.send(event(change));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("ACL change feed: dropping SSE subscriber: {}", e.getMessage());
+            emitters.remove(emitter);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder event(PolicyChange change) {
+        return SseEmitter.event()
+                .name("policy-change")
+                .id(String.valueOf(change.sequence()))
+                .data(change);
+    }
+
+    private synchronized void removeWaiter(Waiter waiter) {
+        waiters.remove(waiter);
+    }
+
+    private record Waiter(long since, DeferredResult<PolicyChanges> result) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.eureka.acl.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of permission decisions, in front of the index / database check
+ * Every entry is tagged with the policy epoch it was computed under and is only served
+ * while that epoch is still current. Policy writes advance the epoch (see AclDecisionIndex),
+ * so a decision computed before a write commits can never be returned after it.
+ * The TTL bounds staleness for changes made by other instances or directly in the database.
+ */
+@Component
+@Log4j2
+public class AclDecisionCache {
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Value("${acl.decision-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${acl.decision-cache.max-size:50000}")
+    private int maxSize;
+
+    @Value("${acl.decision-cache.ttl:60000}")
+    private long ttl;
+
+    /**
+     * Epoch to pass to put(); read it before computing the decision
+     */
+    public long currentEpoch() {
+        return epoch.get();
+    }
+
+    public Boolean get(Key key) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.epoch() != epoch.get() || entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.granted();
+    }
+
+    /**
+     * Caches a decision computed under the given epoch; dropped if the policy changed meanwhile
+     */
+    public void put(Key key, boolean granted, long computedAt) {
+        if (!enabled || computedAt != epoch.get()) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(key, new Entry(granted, computedAt, System.currentTimeMillis() + ttl, System.nanoTime()));
+    }
+
+    /**
+     * Invalidates every cached decision; stale entries are dropped lazily on access or eviction
+     */
+    public void advanceEpoch() {
+        long advanced = epoch.incrementAndGet();
+        log.debug("ACL decision cache: policy epoch advanced to {}", advanced);
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("epoch", epoch.get());
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    private synchronized void evict() {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long current = epoch.get();
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.epoch() != current || entry.expiresAt() <= now);
+
+        // Still full: drop the oldest tenth of the entries
+        int overflow = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        if (overflow > 0) {
+            // One sort of a snapshot, then removal by key (no map scan per removed entry)
+            List<Map.Entry<Key, Entry>> snapshot = new ArrayList<>(entries.entrySet());
+            snapshot.sort(Comparator.comparingLong(mapEntry -> mapEntry.getValue().insertedAt()));
+            for (Map.Entry<Key, Entry> oldest : snapshot.subList(0, Math.min(overflow, snapshot.size()))) {
+                entries.remove(oldest.getKey(), oldest.getValue());
+            }
+        }
+        evictions.add(before - entries.size());
+        log.debug("ACL decision cache eviction: {} -> {} entries", before, entries.size());
+    }
+
+    public record Key(String username, String projectName, String apiPath, String httpMethod, String permissionName) {
+    }
+
+    private record Entry(boolean granted, long epoch, long expiresAt, long insertedAt) {
+    }
+}
@@ -0,0 +1,452 @@
+package com.eureka.acl.service;
+
+import com.eureka.acl.dto.PolicyChange;
+import com.eureka.acl.repository.ApiPermissionRepository;
+import com.eureka.acl.repository.GroupRoleRepository;
+import com.eureka.acl.repository.RolePermissionRepository;
+import com.eureka.acl.repository.UserGroupRepository;
+import com.eureka.acl.repository.UserRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory authorization index
+ * Every API permission is interned to a dense int id; each user's effective permissions
+ * (union over groups -> roles -> permissions) are precomputed into a BitSet. A check is
+ * one hash lookup for the permission, one for the user and a bit test.
+ *
+ * Writes made through AclService, RolePermissionService and UnifiedAclService update only
+ * the affected roles, groups and users after their transaction commits, advance the
+ * policy epoch of the AclDecisionCache and publish the change on the AclChangeFeed. A periodic full
+ * rebuild picks up changes made by other instances or directly in the database.
+ */
+@Component
+@Log4j2
+public class AclDecisionIndex {
+
+    // Marks a permission name shared by several APIs in the by-name lookup
+    private static final int AMBIGUOUS = -1;
+
+    private final ApiPermissionRepository apiPermissionRepository;
+    private final RolePermissionRepository rolePermissionRepository;
+    private final GroupRoleRepository groupRoleRepository;
+    private final UserGroupRepository userGroupRepository;
+    private final UserRepository userRepository;
+    private final AclDecisionCache decisionCache;
+    private final AclChangeFeed changeFeed;
+    private final TransactionTemplate readTransaction;
+
+    @Value("${acl.index.enabled:true}")
+    private boolean enabled;
+
+    private volatile State state;
+
+    public AclDecisionIndex(ApiPermissionRepository apiPermissionRepository,
+                            RolePermissionRepository rolePermissionRepository,
+                            GroupRoleRepository groupRoleRepository,
+                            UserGroupRepository userGroupRepository,
+                            UserRepository userRepository,
+                            AclDecisionCache decisionCache,
+                            AclChangeFeed changeFeed,
+                            PlatformTransactionManager transactionManager) {
+        this.apiPermissionRepository = apiPermissionRepository;
+        this.rolePermissionRepository = rolePermissionRepository;
+        this.groupRoleRepository = groupRoleRepository;
+        this.userGroupRepository = userGroupRepository;
+        this.userRepository = userRepository;
+        this.decisionCache = decisionCache;
+        this.changeFeed = changeFeed;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return enabled && state != null;
+    }
+
+    /**
+     * Same decision as the database path: the user must have at least one role through
+     * its groups; public APIs are then granted, others need the permission on some role
+     */
+    public boolean hasPermission(String username, String projectName, String apiPath, String httpMethod, String permissionName) {
+        State current = state;
+        BitSet userBits = current.userPermissions.get(username);
+        if (userBits == null) {
+            return false;
+        }
+        Integer permission = current.permissionsByKey.get(new PermissionKey(projectName, apiPath, httpMethod, permissionName));
+        return permission != null && (current.publicPermissions.get(permission) || userBits.get(permission));
+    }
+
+    public boolean hasPermissionByName(String username, String permissionName) {
+        State current = state;
+        BitSet userBits = current.userPermissions.get(username);
+        if (userBits == null) {
+            return false;
+        }
+        Integer permission = current.permissionsByName.get(permissionName);
+        // AMBIGUOUS: the name is used by several APIs, which the database path also rejects
+        return permission != null && permission != AMBIGUOUS
+                && (current.publicPermissions.get(permission) || userBits.get(permission));
+    }
+
+    /**
+     * Batch form of hasPermission for one user: the user's permission set is resolved once
+     * and every check is answered from the same index snapshot
+     */
+    public List<Boolean> hasPermissions(String username, List<AclDecisionCache.Key> checks) {
+        State current = state;
+        BitSet userBits = current.userPermissions.get(username);
+        List<Boolean> results = new ArrayList<>(checks.size());
+        for (AclDecisionCache.Key check : checks) {
+            if (userBits == null) {
+                results.add(false);
+                continue;
+            }
+            Integer permission = current.permissionsByKey.get(
+                    new PermissionKey(check.projectName(), check.apiPath(), check.httpMethod(), check.permissionName()));
+            results.add(permission != null && (current.publicPermissions.get(permission) || userBits.get(permission)));
+        }
+        return results;
+    }
+
+    // ==================== INCREMENTAL UPDATES ====================
+
+    public void roleChanged(Long roleId) {
+        afterCommit(PolicyChange.TYPE_ROLE, roleId, new Affected(null, List.of(roleId), List.of()), current -> {
+            BitSet bits = new BitSet();
+            for (Long permissionId : rolePermissionRepository.findPermissionIdsByRoleId(roleId)) {
+                Integer dense = current.denseIds.get(permissionId);
+                if (dense != null) {
+                    bits.set(dense);
+                }
+            }
+            BitSet changed = (BitSet) current.roleBits.getOrDefault(roleId, new BitSet()).clone();
+            changed.xor(bits);
+            current.roleBits.put(roleId, bits);
+            Set<Long> users = new HashSet<>();
+            for (Long groupId : current.roleGroups.getOrDefault(roleId, Set.of())) {
+                users.addAll(current.groupUsers.getOrDefault(groupId, Set.of()));
+            }
+            users.forEach(current::recomputeUser);
+            log.debug("ACL index: role {} updated, {} users recomputed", roleId, users.size());
+            return new Affected(current.usernamesOf(users), List.of(roleId), current.permissionIdsOf(changed));
+        });
+    }
+
+    public void groupChanged(Long groupId) {
+        afterCommit(PolicyChange.TYPE_GROUP, groupId, new Affected(null, List.of(), List.of()), current -> {
+            Set<Long> roles = current.setGroupRoles(groupId, groupRoleRepository.findRoleIdsByGroupId(groupId));
+            BitSet changed = new BitSet();
+            for (Long roleId : roles) {
+                changed.or(current.roleBits.getOrDefault(roleId, new BitSet()));
+            }
+            Set<Long> users = current.groupUsers.getOrDefault(groupId, Set.of());
+            users.forEach(current::recomputeUser);
+            log.debug("ACL index: group {} updated, {} users recomputed", groupId, users.size());
+            return new Affected(current.usernamesOf(users), roles, current.permissionIdsOf(changed));
+        });
+    }
+
+    public void userChanged(Long userId) {
+        afterCommit(PolicyChange.TYPE_USER, userId, new Affected(null, List.of(), List.of()), current -> {
+            userRepository.findUsernameById(userId).ifPresent(username -> current.usernames.put(userId, username));
+            String username = current.usernames.get(userId);
+            BitSet changed = username == null ? new BitSet()
+                    : (BitSet) current.userPermissions.getOrDefault(username, new BitSet()).clone();
+            current.setUserGroups(userId, userGroupRepository.findGroupIdsByUserId(userId));
+            current.recomputeUser(userId);
+            if (username != null) {
+                changed.xor(current.userPermissions.getOrDefault(username, new BitSet()));
+            }
+            log.debug("ACL index: user {} updated", userId);
+            return new Affected(current.usernamesOf(Set.of(userId)), List.of(), current.permissionIdsOf(changed));
+        });
+    }
+
+    public void permissionChanged(Long permissionId) {
+        afterCommit(PolicyChange.TYPE_PERMISSION, permissionId, new Affected(null, List.of(), List.of(permissionId)), current -> {
+            for (Object[] row : apiPermissionRepository.findIndexEntry(permissionId)) {
+                current.putPermission(row);
+            }
+            log.debug("ACL index: permission {} updated", permissionId);
+            // Holders of the permission are not tracked, and a public flag affects everyone
+            return new Affected(null, List.of(), List.of(permissionId));
+        });
+    }
+
+    /**
+     * Several permissions written at once (bulk registration): one index update and one change event
+     */
+    public void permissionsChanged(List<Long> permissionIds) {
+        if (permissionIds.isEmpty()) {
+            return;
+        }
+        afterCommit(PolicyChange.TYPE_PERMISSION, null, new Affected(null, List.of(), permissionIds), current -> {
+            for (Object[] row : apiPermissionRepository.findIndexEntriesByIds(permissionIds)) {
+                current.putPermission(row);
+            }
+            log.debug("ACL index: {} permissions updated", permissionIds.size());
+            return new Affected(null, List.of(), permissionIds);
+        });
+    }
+
+    // ==================== FULL REBUILD ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${acl.index.refresh-interval:300000}",
+            initialDelayString = "${acl.index.refresh-interval:300000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the whole index and swaps it in; incremental updates wait for the rebuild
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            State rebuilt = readTransaction.execute(status -> load());
+            state = rebuilt;
+            // The rebuild may include changes made elsewhere; cached decisions can predate them
+            decisionCache.advanceEpoch();
+            log.info("ACL index rebuilt in {} ms: {} permissions, {} users with roles",
+                    (System.nanoTime() - start) / 1_000_000, rebuilt.keys.size(), rebuilt.userPermissions.size());
+        } catch (Exception e) {
+            log.error("ACL index rebuild failed, keeping previous index: {}", e.getMessage(), e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        State current = state;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", current != null);
+        if (current != null) {
+            stats.put("permissions", current.keys.size());
+            stats.put("roles", current.roleBits.size());
+            stats.put("usersWithRoles", current.userPermissions.size());
+        }
+        return stats;
+    }
+
+    private State load() {
+        State loaded = new State();
+        for (Object[] row : apiPermissionRepository.findIndexEntries()) {
+            loaded.putPermission(row);
+        }
+        for (Object[] row : rolePermissionRepository.findAllRolePermissionIds()) {
+            Integer dense = loaded.denseIds.get((Long) row[1]);
+            if (dense != null) {
+                loaded.roleBits.computeIfAbsent((Long) row[0], id -> new BitSet()).set(dense);
+            }
+        }
+        for (Object[] row : groupRoleRepository.findAllGroupRoleIds()) {
+            loaded.groupRoles.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+            loaded.roleGroups.computeIfAbsent((Long) row[1], id -> new HashSet<>()).add((Long) row[0]);
+        }
+        for (Object[] row : userGroupRepository.findAllUserGroupIds()) {
+            loaded.userGroups.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+            loaded.groupUsers.computeIfAbsent((Long) row[1], id -> new HashSet<>()).add((Long) row[0]);
+        }
+        for (Object[] row : userRepository.findAllUsernames()) {
+            loaded.usernames.put((Long) row[0], (String) row[1]);
+        }
+        loaded.userGroups.keySet().forEach(loaded::recomputeUser);
+        return loaded;
+    }
+
+    /**
+     * Applies a change to the index; null when the index is not built or the update failed
+     */
+    private synchronized Affected update(Function<State, Affected> change) {
+        State current = state;
+        if (current == null) {
+            return null;
+        }
+        try {
+            return readTransaction.execute(status -> change.apply(current));
+        } catch (Exception e) {
+            // A partially applied update may leave the index stale; rebuild from the database
+            log.error("ACL index update failed, rebuilding: {}", e.getMessage());
+            rebuild();
+            return null;
+        }
+    }
+
+    /**
+     * Applies an update once the write is committed and advances the decision cache epoch
+     * twice: now, so cached decisions stop being served, and after the index update, so
+     * decisions computed against the old policy while the write was committing are dropped too.
+     * The committed change is then published on the change feed, with the affected users, roles
+     * and permissions from the index, or the fallback when the index could not tell.
+     */
+    private void afterCommit(String type, Long subjectId, Affected fallback, Function<State, Affected> change) {
+        decisionCache.advanceEpoch();
+        Runnable apply = () -> {
+            Affected affected = isReady() ? update(change) : null;
+            decisionCache.advanceEpoch();
+            Affected published = affected != null ? affected : fallback;
+            changeFeed.publish(type, subjectId, published.users(), published.roles(), published.permissions());
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Users (null = unknown / everyone), roles and permissions touched by a change
+     */
+    private record Affected(Collection<String> users, Collection<Long> roles, Collection<Long> permissions) {
+    }
+
+    private record PermissionKey(String projectName, String apiPath, String httpMethod, String name) {
+    }
+
+    /**
+     * Index contents; the maps read by checks are concurrent and user BitSets are
+     * replaced, never mutated, so lookups need no locking
+     */
+    private static final class State {
+        final Map<PermissionKey, Integer> permissionsByKey = new ConcurrentHashMap<>();
+        final Map<String, Integer> permissionsByName = new ConcurrentHashMap<>();
+        final Map<String, BitSet> userPermissions = new ConcurrentHashMap<>();
+        volatile BitSet publicPermissions = new BitSet();
+
+        // Writer-side structures, only touched under the index lock
+        final Map<Long, Integer> denseIds = new HashMap<>();
+        final List<PermissionKey> keys = new ArrayList<>();
+        final List<Long> permissionIds = new ArrayList<>();
+        final Map<Long, BitSet> roleBits = new HashMap<>();
+        final Map<Long, Set<Long>> groupRoles = new HashMap<>();
+        final Map<Long, Set<Long>> roleGroups = new HashMap<>();
+        final Map<Long, Set<Long>> userGroups = new HashMap<>();
+        final Map<Long, Set<Long>> groupUsers = new HashMap<>();
+        final Map<Long, String> usernames = new HashMap<>();
+
+        void putPermission(Object[] row) {
+            Long id = (Long) row[0];
+            PermissionKey key = new PermissionKey((String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+            boolean isPublic = (Boolean) row[5];
+
+            Integer dense = denseIds.get(id);
+            if (dense == null) {
+                dense = keys.size();
+                denseIds.put(id, dense);
+                keys.add(key);
+                permissionIds.add(id);
+            } else if (!keys.get(dense).equals(key)) {
+                permissionsByKey.remove(keys.get(dense));
+                keys.set(dense, key);
+            }
+            permissionsByKey.put(key, dense);
+            int assigned = dense;
+            permissionsByName.merge(key.name(), dense, (existing, added) -> existing == assigned ? existing : AMBIGUOUS);
+
+            if (publicPermissions.get(dense) != isPublic) {
+                BitSet updated = (BitSet) publicPermissions.clone();
+                updated.set(dense, isPublic);
+                publicPermissions = updated;
+            }
+        }
+
+        /**
+         * Replaces the roles of a group; returns the roles added or removed
+         */
+        Set<Long> setGroupRoles(Long groupId, List<Long> roleIds) {
+            Set<Long> previous = groupRoles.getOrDefault(groupId, Set.of());
+            for (Long roleId : previous) {
+                roleGroups.getOrDefault(roleId, new HashSet<>()).remove(groupId);
+            }
+            Set<Long> updated = new HashSet<>(roleIds);
+            groupRoles.put(groupId, updated);
+            for (Long roleId : roleIds) {
+                roleGroups.computeIfAbsent(roleId, id -> new HashSet<>()).add(groupId);
+            }
+            Set<Long> changed = new HashSet<>(previous);
+            changed.addAll(updated);
+            changed.removeIf(roleId -> previous.contains(roleId) && updated.contains(roleId));
+            return changed;
+        }
+
+        List<String> usernamesOf(Collection<Long> userIds) {
+            return userIds.stream().map(usernames::get).filter(Objects::nonNull).toList();
+        }
+
+        List<Long> permissionIdsOf(BitSet bits) {
+            return bits.stream().mapToObj(permissionIds::get).toList();
+        }
+
+        void setUserGroups(Long userId, List<Long> groupIds) {
+            for (Long groupId : userGroups.getOrDefault(userId, Set.of())) {
+                groupUsers.getOrDefault(groupId, new HashSet<>()).remove(userId);
+            }
+            userGroups.put(userId, new HashSet<>(groupIds));
+            for (Long groupId : groupIds) {
+                groupUsers.computeIfAbsent(groupId, id -> new HashSet<>()).add(userId);
+            }
+        }
+
+        void recomputeUser(Long userId) {
+            String username = usernames.get(userId);
+            if (username == null) {
+                return;
+            }
+            BitSet bits = null;
+            for (Long groupId : userGroups.getOrDefault(userId, Set.of())) {
+                for (Long roleId : groupRoles.getOrDefault(groupId, Set.of())) {
+                    if (bits == null) {
+                        bits = new BitSet();
+                    }
+                    BitSet role = roleBits.get(roleId);
+                    if (role != null) {
+                        bits.or(role);
+                    }
+                }
+            }
+            // Users without any role are absent, so every check for them is denied
+            if (bits == null) {
+                userPermissions.remove(username);
+            } else {
+                userPermissions.put(username, bits);
+            }
+        }
+    }
+}
@@ -1,23 +1,48 @@
 package com.eureka.acl.service;
 
+import com.eureka.acl.dto.MembershipDelta;
+import com.eureka.acl.dto.UserPermissionView;
+import com.eureka.acl.dto.UserRoleView;
 import com.eureka.acl.entity.*;
 import com.eureka.acl.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Log4j2
 public class AclService {
     
+    // Membership writes used by the update* reconciliation; concurrent identical grants are ignored
+    private static final String INSERT_ROLE_PERMISSION_SQL =
+            "INSERT INTO role_permissions (role_id, permission_id) VALUES (?, ?) ON CONFLICT (role_id, permission_id) DO NOTHING";
+    private static final String DELETE_ROLE_PERMISSION_SQL =
+            "DELETE FROM role_permissions WHERE role_id = ? AND permission_id = ?";
+    private static final String INSERT_USER_GROUP_SQL =
+            "INSERT INTO user_groups (user_id, group_id) VALUES (?, ?) ON CONFLICT (user_id, group_id) DO NOTHING";
+    private static final String DELETE_USER_GROUP_SQL =
+            "DELETE FROM user_groups WHERE user_id = ? AND group_id = ?";
+    private static final String INSERT_GROUP_ROLE_SQL =
+            "INSERT INTO group_roles (group_id, role_id) VALUES (?, ?) ON CONFLICT (group_id, role_id) DO NOTHING";
+    private static final String DELETE_GROUP_ROLE_SQL =
+            "DELETE FROM group_roles WHERE group_id = ? AND role_id = ?";
+    
     private final ApiPermissionRepository apiPermissionRepository;
     private final RoleRepository roleRepository;
     private final RolePermissionRepository rolePermissionRepository;
@@ -25,6 +50,11 @@ public class AclService {
     private final GroupRepository groupRepository;
     private final UserGroupRepository userGroupRepository;
     private final GroupRoleRepository groupRoleRepository;
+    private final AclDecisionIndex aclDecisionIndex;
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${acl.membership.batch-size:500}")
+    private int membershipBatchSize;
     
 
     /**
@@ -181,6 +211,7 @@ public class AclService {
         rolePermission.setPermission(permission);
         
         RolePermission saved = rolePermissionRepository.save(rolePermission);
+        aclDecisionIndex.roleChanged(role.getId());
         log.info("Permission assigned successfully to role");
         return saved;
     }
@@ -251,16 +282,18 @@ public class AclService {
         }
         
         rolePermissionRepository.delete(rolePermissionOpt.get());
+        aclDecisionIndex.roleChanged(role.getId());
         log.info("Permission removed successfully from role");
         return true;
     }
     
     
     /**
-     * Update role permissions (delete all existing + create new ones) - Transactional
+     * Update role permissions to exactly the given names - Transactional
+     * Only the difference to the current grants is written; an unchanged list writes nothing
      */
     @Transactional
-    public List<RolePermission> updateRolePermissions(String roleName, List<String> permissionNames) {
+    public MembershipDelta updateRolePermissions(String roleName, List<String> permissionNames) {
         log.info("Updating permissions for role: {} with {} permissions", roleName, permissionNames.size());
         
         // Find role
@@ -270,28 +303,17 @@ public class AclService {
         }
         
         Role role = roleOpt.get();
+        MembershipDelta delta = reconcile("Permission", roleName, role.getId(), permissionNames,
+                rolePermissionRepository.findPermissionNamesByRoleId(role.getId()),
+                apiPermissionRepository::findIdsByNames,
+                INSERT_ROLE_PERMISSION_SQL, DELETE_ROLE_PERMISSION_SQL);
         
-        // Delete all existing role permissions
-        List<RolePermission> existingPermissions = rolePermissionRepository.findByRoleId(role.getId());
-        rolePermissionRepository.deleteAll(existingPermissions);
-        log.info("Deleted {} existing permissions for role: {}", existingPermissions.size(), roleName);
-        
-        // Create new role permissions
-        List<RolePermission> newPermissions = new ArrayList<>();
-        for (String permissionName : permissionNames) {
-            Optional<ApiPermission> permissionOpt = apiPermissionRepository.findSingleByName(permissionName);
-            if (permissionOpt.isPresent()) {
-                RolePermission rolePermission = new RolePermission();
-                rolePermission.setRole(role);
-                rolePermission.setPermission(permissionOpt.get());
-                newPermissions.add(rolePermissionRepository.save(rolePermission));
-            } else {
-                log.warn("Permission not found: {}", permissionName);
-            }
+        if (delta.hasChanges()) {
+            aclDecisionIndex.roleChanged(role.getId());
         }
-        
-        log.info("Created {} new permissions for role: {}", newPermissions.size(), roleName);
-        return newPermissions;
+        log.info("Permissions of role {}: {} added, {} removed, {} unchanged",
+                roleName, delta.added().size(), delta.removed().size(), delta.unchanged());
+        return delta;
     }
     
     
@@ -363,6 +385,7 @@ public class AclService {
         userGroup.setGroup(group);
         
         UserGroup saved = userGroupRepository.save(userGroup);
+        aclDecisionIndex.userChanged(user.getId());
         log.info("User assigned successfully to group");
         return saved;
     }
@@ -401,6 +424,7 @@ public class AclService {
         groupRole.setRole(role);
         
         GroupRole saved = groupRoleRepository.save(groupRole);
+        aclDecisionIndex.groupChanged(group.getId());
         log.info("Role assigned successfully to group");
         return saved;
     }
@@ -452,10 +476,11 @@ public class AclService {
     }
     
     /**
-     * Update user groups (delete all existing + create new ones) - Transactional
+     * Update user groups to exactly the given names - Transactional
+     * Only the difference to the current memberships is written; an unchanged list writes nothing
      */
     @Transactional
-    public List<UserGroup> updateUserGroups(String username, List<String> groupNames) {
+    public MembershipDelta updateUserGroups(String username, List<String> groupNames) {
         log.info("Updating groups for user: {} with {} groups", username, groupNames.size());
         
         // Find user
@@ -465,35 +490,25 @@ public class AclService {
         }
         
         User user = userOpt.get();
+        MembershipDelta delta = reconcile("Group", username, user.getId(), groupNames,
+                userGroupRepository.findGroupNamesByUserId(user.getId()),
+                groupRepository::findIdsByNames,
+                INSERT_USER_GROUP_SQL, DELETE_USER_GROUP_SQL);
         
-        // Delete all existing user groups
-        List<UserGroup> existingGroups = userGroupRepository.findByUserId(user.getId());
-        userGroupRepository.deleteAll(existingGroups);
-        log.info("Deleted {} existing groups for user: {}", existingGroups.size(), username);
-        
-        // Create new user groups
-        List<UserGroup> newGroups = new ArrayList<>();
-        for (String groupName : groupNames) {
-            Optional<Group> groupOpt = groupRepository.findByName(groupName);
-            if (groupOpt.isPresent()) {
-                UserGroup userGroup = new UserGroup();
-                userGroup.setUser(user);
-                userGroup.setGroup(groupOpt.get());
-                newGroups.add(userGroupRepository.save(userGroup));
-            } else {
-                log.warn("Group not found: {}", groupName);
-            }
+        if (delta.hasChanges()) {
+            aclDecisionIndex.userChanged(user.getId());
         }
-        
-        log.info("Created {} new groups for user: {}", newGroups.size(), username);
-        return newGroups;
+        log.info("Groups of user {}: {} added, {} removed, {} unchanged",
+                username, delta.added().size(), delta.removed().size(), delta.unchanged());
+        return delta;
     }
     
     /**
-     * Update group roles (delete all existing + create new ones) - Transactional
+     * Update group roles to exactly the given names - Transactional
+     * Only the difference to the current roles is written; an unchanged list writes nothing
      */
     @Transactional
-    public List<GroupRole> updateGroupRoles(String groupName, List<String> roleNames) {
+    public MembershipDelta updateGroupRoles(String groupName, List<String> roleNames) {
         log.info("Updating roles for group: {} with {} roles", groupName, roleNames.size());
         
         // Find group
@@ -503,70 +518,102 @@ public class AclService {
         }
         
         Group group = groupOpt.get();
+        MembershipDelta delta = reconcile("Role", groupName, group.getId(), roleNames,
+                groupRoleRepository.findRoleNamesByGroupId(group.getId()),
+                roleRepository::findIdsByNames,
+                INSERT_GROUP_ROLE_SQL, DELETE_GROUP_ROLE_SQL);
         
-        // Delete all existing group roles
-        List<GroupRole> existingRoles = groupRoleRepository.findByGroupId(group.getId());
-        groupRoleRepository.deleteAll(existingRoles);
-        log.info("Deleted {} existing roles for group: {}", existingRoles.size(), groupName);
-        
-        // Create new group roles
-        List<GroupRole> newRoles = new ArrayList<>();
-        for (String roleName : roleNames) {
-            Optional<Role> roleOpt = roleRepository.findByName(roleName);
-            if (roleOpt.isPresent()) {
-                GroupRole groupRole = new GroupRole();
-                groupRole.setGroup(group);
-                groupRole.setRole(roleOpt.get());
-                newRoles.add(groupRoleRepository.save(groupRole));
-            } else {
-                log.warn("Role not found: {}", roleName);
+        if (delta.hasChanges()) {
+            aclDecisionIndex.groupChanged(group.getId());
+        }
+        log.info("Roles of group {}: {} added, {} removed, {} unchanged",
+                groupName, delta.added().size(), delta.removed().size(), delta.unchanged());
+        return delta;
+    }
+    
+    /**
+     * Diffs a membership (current (id, name) rows) against the requested names and writes only
+     * the difference: missing rows are inserted and extra rows deleted, both as JDBC batches.
+     * Requested names are resolved with one IN query; unknown names are reported, not fatal.
+     */
+    private MembershipDelta reconcile(String memberType, String subject, Long ownerId, List<String> requestedNames,
+                                      List<Object[]> currentRows,
+                                      Function<Collection<String>, List<Object[]>> resolver,
+                                      String insertSql, String deleteSql) {
+        Map<Long, String> current = new LinkedHashMap<>();
+        for (Object[] row : currentRows) {
+            current.put((Long) row[0], (String) row[1]);
+        }
+        
+        Set<String> names = new LinkedHashSet<>(requestedNames);
+        names.remove(null);
+        Map<String, Long> resolved = new HashMap<>();
+        if (!names.isEmpty()) {
+            for (Object[] row : resolver.apply(names)) {
+                if (resolved.put((String) row[1], (Long) row[0]) != null) {
+                    throw new RuntimeException(memberType + " name is not unique: " + row[1]);
+                }
             }
         }
         
-        log.info("Created {} new roles for group: {}", newRoles.size(), groupName);
-        return newRoles;
+        Set<Long> requestedIds = new HashSet<>();
+        List<Long> toInsert = new ArrayList<>();
+        List<String> added = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        for (String name : names) {
+            Long id = resolved.get(name);
+            if (id == null) {
+                log.warn("{} not found: {}", memberType, name);
+                notFound.add(name);
+            } else if (requestedIds.add(id) && !current.containsKey(id)) {
+                toInsert.add(id);
+                added.add(name);
+            }
+        }
+        
+        List<Long> toDelete = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        current.forEach((id, name) -> {
+            if (!requestedIds.contains(id)) {
+                toDelete.add(id);
+                removed.add(name);
+            }
+        });
+        
+        if (!toDelete.isEmpty()) {
+            jdbcTemplate.batchUpdate(deleteSql, toDelete, membershipBatchSize, (statement, id) -> {
+                statement.setLong(1, ownerId);
+                statement.setLong(2, id);
+            });
+        }
+        if (!toInsert.isEmpty()) {
+            jdbcTemplate.batchUpdate(insertSql, toInsert, membershipBatchSize, (statement, id) -> {
+                statement.setLong(1, ownerId);
+                statement.setLong(2, id);
+            });
+        }
+        
+        return new MembershipDelta(subject, added, removed, current.size() - toDelete.size(), notFound);
     }
     
     /**
-     * Get all roles for a user (through groups)
+     * Get all roles for a user (through groups) - single projection query, no entity graph
      */
-    public List<Role> getUserRoles(String username) {
+    public List<UserRoleView> getUserRoles(String username) {
         log.info("=== AclService.getUserRoles() START ===");
         log.info("Parameters: username={}", username);
         
         try {
-            Optional<User> userOpt = userRepository.findByUsername(username);
-            if (userOpt.isEmpty()) {
-                log.warn("User not found: username={}", username);
-                log.info("=== AclService.getUserRoles() END - USER NOT FOUND ===");
-                return List.of();
-            }
-            
-            User user = userOpt.get();
-            Set<Group> userGroups = user.getGroups();
+            List<UserRoleView> userRoles = groupRoleRepository.findRoleViewsByUsername(username);
             
-            if (userGroups == null || userGroups.isEmpty()) {
-                log.warn("User {} has no groups assigned", username);
-                log.info("=== AclService.getUserRoles() END - NO GROUPS ===");
+            if (userRoles.isEmpty()) {
+                log.warn("No roles found for user (unknown user or no groups/roles): username={}", username);
+                log.info("=== AclService.getUserRoles() END - NO ROLES ===");
                 return List.of();
             }
             
-            // Create defensive copy to avoid ConcurrentModificationException
-            List<Group> groupsList = new ArrayList<>(userGroups);
-            log.info("User {} belongs to {} groups: {}", username, groupsList.size(), 
-                    groupsList.stream().map(Group::getName).collect(java.util.stream.Collectors.toList()));
-            
-            // Get all roles from all user's groups
-            List<Role> userRoles = groupsList.stream()
-                    .flatMap(group -> {
-                        Set<Role> groupRoles = group.getRoles();
-                        return groupRoles != null ? groupRoles.stream() : Stream.empty();
-                    })
-                    .distinct()
-                    .toList();
-            
-            log.info("User {} has {} roles: {}", username, userRoles.size(), 
-                    userRoles.stream().map(Role::getName).collect(java.util.stream.Collectors.toList()));
+            log.info("User {} has {} roles: {}", username, userRoles.size(),
+                    userRoles.stream().map(UserRoleView::name).toList());
             log.info("=== AclService.getUserRoles() END - SUCCESS ===");
             return userRoles;
         } catch (Exception e) {
@@ -577,56 +624,23 @@ public class AclService {
     }
     
     /**
-     * Get all permissions for a user (from all their roles through groups)
+     * Get all permissions for a user (from all their roles through groups) - single projection query
      */
-    public List<ApiPermission> getUserPermissions(String username) {
+    public List<UserPermissionView> getUserPermissions(String username) {
         log.info("=== AclService.getUserPermissions() START ===");
         log.info("Parameters: username={}", username);
         
         try {
-            Optional<User> userOpt = userRepository.findByUsername(username);
-            if (userOpt.isEmpty()) {
-                log.warn("User not found: username={}", username);
-                log.info("=== AclService.getUserPermissions() END - USER NOT FOUND ===");
-                return List.of();
-            }
-            
-            User user = userOpt.get();
-            Set<Group> userGroups = user.getGroups();
+            List<UserPermissionView> permissions = rolePermissionRepository.findPermissionViewsByUsername(username);
             
-            if (userGroups == null || userGroups.isEmpty()) {
-                log.warn("User {} has no groups assigned", username);
-                log.info("=== AclService.getUserPermissions() END - NO GROUPS ===");
+            if (permissions.isEmpty()) {
+                log.warn("No permissions found for user (unknown user or no groups/roles): username={}", username);
+                log.info("=== AclService.getUserPermissions() END - NO PERMISSIONS ===");
                 return List.of();
             }
             
-            log.info("User {} belongs to {} groups: {}", username, userGroups.size(),
-                    userGroups.stream().map(Group::getName).collect(java.util.stream.Collectors.toList()));
-            
-            // Get all roles from all user's groups
-            List<Role> userRoles = userGroups.stream()
-                    .flatMap(group -> group.getRoles().stream())
-                    .distinct()
-                    .toList();
-            
-            if (userRoles.isEmpty()) {
-                log.warn("User {} has no roles through groups", username);
-                log.info("=== AclService.getUserPermissions() END - NO ROLES ===");
-                return List.of();
-            }
-            
-            log.info("User {} has {} roles: {}", username, userRoles.size(),
-                    userRoles.stream().map(Role::getName).collect(java.util.stream.Collectors.toList()));
-            
-            // Get all permissions from all user roles
-            List<ApiPermission> permissions = userRoles.stream()
-                    .flatMap(role -> rolePermissionRepository.findByRoleId(role.getId()).stream())
-                    .map(RolePermission::getPermission)
-                    .distinct()  // Remove duplicates
-                    .toList();
-            
             log.info("User {} has {} permissions: {}", username, permissions.size(),
-                    permissions.stream().map(ApiPermission::getName).collect(java.util.stream.Collectors.toList()));
+                    permissions.stream().map(UserPermissionView::name).toList());
             log.info("=== AclService.getUserPermissions() END - SUCCESS ===");
             return permissions;
             
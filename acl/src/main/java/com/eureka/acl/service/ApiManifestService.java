@@ -0,0 +1,199 @@
+package com.eureka.acl.service;
+
+import com.eureka.acl.dto.ApiManifestRequest;
+import com.eureka.acl.dto.ApiManifestResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bulk API permission registration from a project's full manifest
+ * The manifest is hashed first: if it matches the hash stored for the project nothing else
+ * runs. Otherwise the stored permissions are read once, diffed against the manifest, and only
+ * added or changed APIs are written with INSERT ... ON CONFLICT in JDBC batches.
+ * The project row is locked for the duration, so replicas registering the same manifest at
+ * once write it a single time and the others see the stored hash.
+ * Any other write to the project's api_permissions clears the stored hash (trigger, V4),
+ * so a manifest is only skipped while the stored APIs are still what it wrote.
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class ApiManifestService {
+
+    private static final String LOCK_PROJECT_SQL = "SELECT manifest_hash FROM projects WHERE id = ? FOR UPDATE";
+
+    private static final String EXISTING_SQL = """
+            SELECT id, name, api_path, http_method, description, persian_name, is_critical, is_public
+            FROM api_permissions
+            WHERE project_id = ?
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO api_permissions (name, project_id, api_path, http_method, description, persian_name,
+                                         is_critical, is_public, created_by)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'manifest')
+            ON CONFLICT (project_id, api_path, http_method, name) DO UPDATE
+            SET description = EXCLUDED.description,
+                persian_name = EXCLUDED.persian_name,
+                is_critical = EXCLUDED.is_critical,
+                is_public = EXCLUDED.is_public,
+                updated_at = CURRENT_TIMESTAMP,
+                updated_by = 'manifest'
+            WHERE (api_permissions.description, api_permissions.persian_name,
+                   api_permissions.is_critical, api_permissions.is_public)
+                  IS DISTINCT FROM
+                  (EXCLUDED.description, EXCLUDED.persian_name, EXCLUDED.is_critical, EXCLUDED.is_public)
+            """;
+
+    private static final String UPDATE_HASH_SQL = "UPDATE projects SET manifest_hash = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProjectRegistry projectRegistry;
+    private final AclDecisionIndex aclDecisionIndex;
+
+    @Value("${acl.manifest.batch-size:200}")
+    private int batchSize;
+
+    @Transactional
+    public ApiManifestResult register(ApiManifestRequest manifest) {
+        log.info("=== ApiManifestService.register() START ===");
+        String projectName = manifest.projectName();
+        Long projectId = projectRegistry.findId(projectName)
+                .orElseThrow(() -> new RuntimeException("Project not found: " + projectName));
+
+        Map<ApiManifestResult.ApiKey, Api> apis = normalize(manifest.apis());
+        String manifestHash = hash(apis.values());
+
+        String storedHash = jdbcTemplate.queryForObject(LOCK_PROJECT_SQL, String.class, projectId);
+        if (manifestHash.equals(storedHash)) {
+            log.info("Manifest for project {} unchanged ({} APIs), skipping", projectName, apis.size());
+            log.info("=== ApiManifestService.register() END - UNCHANGED ===");
+            return ApiManifestResult.unchanged(projectName, manifestHash);
+        }
+
+        Map<ApiManifestResult.ApiKey, Api> existing = loadExisting(projectId);
+        List<Api> changed = new ArrayList<>();
+        List<ApiManifestResult.ApiKey> added = new ArrayList<>();
+        List<ApiManifestResult.ApiKey> updated = new ArrayList<>();
+        for (Map.Entry<ApiManifestResult.ApiKey, Api> entry : apis.entrySet()) {
+            Api stored = existing.get(entry.getKey());
+            if (stored == null) {
+                added.add(entry.getKey());
+                changed.add(entry.getValue());
+            } else if (!stored.sameAttributes(entry.getValue())) {
+                updated.add(entry.getKey());
+                changed.add(entry.getValue());
+            }
+        }
+        List<ApiManifestResult.ApiKey> notInManifest = existing.keySet().stream()
+                .filter(key -> !apis.containsKey(key))
+                .toList();
+
+        if (!changed.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, changed, batchSize, (statement, api) -> {
+                statement.setString(1, api.key().name());
+                statement.setLong(2, projectId);
+                statement.setString(3, api.key().apiPath());
+                statement.setString(4, api.key().httpMethod());
+                statement.setString(5, api.description());
+                statement.setString(6, api.persianName());
+                statement.setBoolean(7, api.isCritical());
+                statement.setBoolean(8, api.isPublic());
+            });
+
+            // Ids of the written rows, so the index and change feed see exactly these permissions
+            Map<ApiManifestResult.ApiKey, Api> written = loadExisting(projectId);
+            aclDecisionIndex.permissionsChanged(changed.stream()
+                    .map(api -> written.get(api.key()))
+                    .filter(Objects::nonNull)
+                    .map(Api::id)
+                    .toList());
+        }
+        jdbcTemplate.update(UPDATE_HASH_SQL, manifestHash, projectId);
+
+        log.info("Manifest for project {}: {} APIs, {} added, {} updated, {} not in manifest",
+                projectName, apis.size(), added.size(), updated.size(), notInManifest.size());
+        log.info("=== ApiManifestService.register() END - SUCCESS ===");
+        return new ApiManifestResult(projectName, manifestHash, false, added, updated, notInManifest);
+    }
+
+    /**
+     * Validates entries, applies the same defaults as single registration and drops duplicates (last wins)
+     */
+    private Map<ApiManifestResult.ApiKey, Api> normalize(List<ApiManifestRequest.Api> entries) {
+        Map<ApiManifestResult.ApiKey, Api> apis = new LinkedHashMap<>();
+        if (entries == null) {
+            return apis;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            ApiManifestRequest.Api entry = entries.get(i);
+            if (entry == null || entry.name() == null || entry.apiPath() == null || entry.httpMethod() == null) {
+                throw new IllegalArgumentException("Missing required parameters in API " + i);
+            }
+            ApiManifestResult.ApiKey key = new ApiManifestResult.ApiKey(entry.name(), entry.apiPath(), entry.httpMethod());
+            apis.put(key, new Api(null, key,
+                    entry.description() != null ? entry.description() : "",
+                    entry.persianName() != null ? entry.persianName() : entry.name(),
+                    entry.isCritical(), entry.isPublic()));
+        }
+        return apis;
+    }
+
+    private Map<ApiManifestResult.ApiKey, Api> loadExisting(Long projectId) {
+        Map<ApiManifestResult.ApiKey, Api> existing = new LinkedHashMap<>();
+        jdbcTemplate.query(EXISTING_SQL, resultSet -> {
+            ApiManifestResult.ApiKey key = new ApiManifestResult.ApiKey(resultSet.getString("name"),
+                    resultSet.getString("api_path"), resultSet.getString("http_method"));
+            existing.put(key, new Api(resultSet.getLong("id"), key, resultSet.getString("description"),
+                    resultSet.getString("persian_name"), resultSet.getBoolean("is_critical"),
+                    resultSet.getBoolean("is_public")));
+        }, projectId);
+        return existing;
+    }
+
+    /**
+     * Order-independent SHA-256 over every field of every API
+     */
+    private static String hash(Iterable<Api> apis) {
+        List<String> lines = new ArrayList<>();
+        for (Api api : apis) {
+            lines.add(String.join("\u0000", api.key().name(), api.key().apiPath(), api.key().httpMethod(),
+                    api.description(), api.persianName(), String.valueOf(api.isCritical()), String.valueOf(api.isPublic())));
+        }
+        lines.sort(Comparator.naturalOrder());
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (String line : lines) {
+                sha256.update(line.getBytes(StandardCharsets.UTF_8));
+                sha256.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Api(Long id, ApiManifestResult.ApiKey key, String description, String persianName,
+                       boolean isCritical, boolean isPublic) {
+
+        boolean sameAttributes(Api other) {
+            return Objects.equals(description, other.description) && Objects.equals(persianName, other.persianName)
+                    && isCritical == other.isCritical && isPublic == other.isPublic;
+        }
+    }
+}
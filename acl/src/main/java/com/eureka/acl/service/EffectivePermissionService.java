@@ -0,0 +1,84 @@
+package com.eureka.acl.service;
+
+import com.eureka.acl.dto.EffectivePermissions;
+import com.eureka.acl.dto.UserPermissionView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versioned per-user permission snapshots
+ * A snapshot is rebuilt from AclService.getUserPermissions only when the policy epoch has
+ * moved since it was taken, so revalidating an unchanged snapshot runs no query.
+ * The ETag is a hash of the permission list, which is the whole body apart from the
+ * username: equal bodies give an equal strong ETag on every instance and across epochs.
+ * The epoch a snapshot was built under is kept next to it, not sent to clients.
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class EffectivePermissionService {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final AclService aclService;
+    private final AclDecisionCache aclDecisionCache;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    @Value("${acl.effective-permissions.max-snapshots:10000}")
+    private int maxSnapshots;
+
+    public Snapshot getSnapshot(String username) {
+        long epoch = aclDecisionCache.currentEpoch();
+        Snapshot cached = snapshots.get(username);
+        if (cached != null && cached.epoch() == epoch) {
+            return cached;
+        }
+
+        List<EffectivePermissions.Permission> permissions = aclService.getUserPermissions(username).stream()
+                .sorted(Comparator.comparing(UserPermissionView::id))
+                .map(view -> new EffectivePermissions.Permission(view.id(), view.name()))
+                .toList();
+        Snapshot snapshot = new Snapshot(new EffectivePermissions(username, permissions), etag(permissions), epoch);
+
+        // Only keep snapshots still current when they were built
+        if (epoch == aclDecisionCache.currentEpoch()) {
+            if (snapshots.size() >= maxSnapshots) {
+                snapshots.values().removeIf(entry -> entry.epoch() != epoch);
+                if (snapshots.size() >= maxSnapshots) {
+                    snapshots.clear();
+                }
+            }
+            snapshots.put(username, snapshot);
+        }
+        log.debug("Effective permissions snapshot for {}: {} permissions, version {}", username, permissions.size(), epoch);
+        return snapshot;
+    }
+
+    private static String etag(List<EffectivePermissions.Permission> permissions) {
+        StringBuilder content = new StringBuilder();
+        for (EffectivePermissions.Permission permission : permissions) {
+            content.append(permission.id()).append(':').append(permission.name()).append(',');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + BASE64_URL.encodeToString(Arrays.copyOf(digest, 12)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Snapshot(EffectivePermissions permissions, String etag, long epoch) {
+    }
+}
@@ -19,6 +19,7 @@ import java.util.Optional;
 public class ProjectRegistrationService {
     
     private final ProjectRepository projectRepository;
+    private final ProjectRegistry projectRegistry;
 
     @Transactional
     public Project registerProject(String name, String description, String baseUrl, String version) {
@@ -33,7 +34,9 @@ public class ProjectRegistrationService {
             project.setVersion(version);
             project.setUpdatedBy("System");
             project.setUpdatedAt(LocalDateTime.now());
-            return projectRepository.save(project);
+            Project updatedProject = projectRepository.save(project);
+            projectRegistry.projectSaved(updatedProject.getId(), updatedProject.getName());
+            return updatedProject;
         }
         
         Project project = new Project();
@@ -45,6 +48,7 @@ public class ProjectRegistrationService {
         project.setCreatedAt(LocalDateTime.now());
         
         Project savedProject = projectRepository.save(project);
+        projectRegistry.projectSaved(savedProject.getId(), savedProject.getName());
         log.info("Project {} registered successfully", name);
         return savedProject;
     }
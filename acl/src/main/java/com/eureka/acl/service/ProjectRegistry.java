@@ -0,0 +1,100 @@
+package com.eureka.acl.service;
+
+import com.eureka.acl.entity.Project;
+import com.eureka.acl.repository.ProjectRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory project name -> id registry
+ * Held as an immutable map that is replaced on every change, so lookups are a single
+ * hash lookup without locking or a database round trip. Loaded at startup, updated after
+ * ProjectRegistrationService.registerProject commits and reloaded periodically to pick up
+ * projects registered through other instances. Until the first load, lookups go to the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Log4j2
+public class ProjectRegistry {
+
+    private final ProjectRepository projectRepository;
+
+    private volatile Map<String, Long> projectIds;
+
+    public Optional<Long> findId(String projectName) {
+        if (projectName == null) {
+            return Optional.empty();
+        }
+        Map<String, Long> current = projectIds;
+        if (current == null) {
+            return projectRepository.findByName(projectName).map(Project::getId);
+        }
+        return Optional.ofNullable(current.get(projectName));
+    }
+
+    public boolean contains(String projectName) {
+        return findId(projectName).isPresent();
+    }
+
+    /**
+     * Adds or updates a project once the registering transaction commits
+     */
+    public void projectSaved(Long id, String name) {
+        Runnable apply = () -> {
+            synchronized (this) {
+                Map<String, Long> current = projectIds;
+                if (current == null || id.equals(current.get(name))) {
+                    return;
+                }
+                Map<String, Long> updated = new HashMap<>(current);
+                updated.put(name, id);
+                projectIds = Map.copyOf(updated);
+            }
+            log.info("Project registry: {} -> {}", name, id);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${acl.project-registry.refresh-interval:60000}",
+            initialDelayString = "${acl.project-registry.refresh-interval:60000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    public synchronized void reload() {
+        try {
+            Map<String, Long> loaded = new HashMap<>();
+            for (Object[] row : projectRepository.findAllProjectNames()) {
+                loaded.put((String) row[1], (Long) row[0]);
+            }
+            projectIds = Map.copyOf(loaded);
+            log.debug("Project registry loaded: {} projects", loaded.size());
+        } catch (Exception e) {
+            log.error("Project registry reload failed, keeping previous registry: {}", e.getMessage());
+        }
+    }
+}
@@ -25,6 +25,7 @@ public class RolePermissionService {
     private final RolePermissionRepository rolePermissionRepository;
     private final RoleRepository roleRepository;
     private final ApiPermissionRepository apiPermissionRepository;
+    private final AclDecisionIndex aclDecisionIndex;
     
     /**
      * Assign permission to role
@@ -63,6 +64,7 @@ public class RolePermissionService {
             rolePermission.setCreatedAt(java.time.LocalDateTime.now());
             
             rolePermissionRepository.save(rolePermission);
+            aclDecisionIndex.roleChanged(roleId);
             log.info("Permission {} successfully assigned to role {}", permissionId, roleId);
             return true;
             
@@ -102,6 +104,7 @@ public class RolePermissionService {
             }
             
             rolePermissionRepository.delete(rolePermissionOpt.get());
+            aclDecisionIndex.roleChanged(roleId);
             log.info("Permission {} successfully removed from role {}", permissionId, roleId);
             return true;
             
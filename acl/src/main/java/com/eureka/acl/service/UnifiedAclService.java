@@ -6,9 +6,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * Unified ACL Service
@@ -21,91 +24,46 @@ public class UnifiedAclService {
     
     private final ApiPermissionRepository apiPermissionRepository;
     private final ProjectRepository projectRepository;
-    private final UserRepository userRepository;
     private final RolePermissionRepository rolePermissionRepository;
-    private final UserGroupRepository userGroupRepository;
+    private final AclDecisionIndex aclDecisionIndex;
+    private final AclDecisionCache aclDecisionCache;
+    private final ProjectRegistry projectRegistry;
 
     /**
      * Check if user has permission for specific API
-     * Supports multiple roles per user
+     * Supports multiple roles per user; served from the decision cache, else answered by the
+     * in-memory index when it is built, otherwise by one query whose cost does not depend on
+     * the number of roles. Unknown projects are denied without evaluation; failed checks are
+     * denied but not cached.
      */
     public boolean hasPermission(String username, String projectName, String apiPath, String httpMethod, String permissionName) {
-        log.info("=== UnifiedAclService.hasPermission() START ===");
-        log.info("Parameters: username={}, projectName={}, apiPath={}, httpMethod={}, permissionName={}",
-                username, projectName, apiPath, httpMethod, permissionName);
+        if (!projectRegistry.contains(projectName)) {
+            log.debug("Permission check for unknown project rejected: projectName={}", projectName);
+            return false;
+        }
+        
+        AclDecisionCache.Key key = new AclDecisionCache.Key(username, projectName, apiPath, httpMethod, permissionName);
+        long epoch = aclDecisionCache.currentEpoch();
+        Boolean cached = aclDecisionCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        
+        if (aclDecisionIndex.isReady()) {
+            boolean granted = aclDecisionIndex.hasPermission(username, projectName, apiPath, httpMethod, permissionName);
+            log.debug("Permission check (index): username={}, projectName={}, apiPath={}, httpMethod={}, permissionName={}, granted={}",
+                    username, projectName, apiPath, httpMethod, permissionName, granted);
+            aclDecisionCache.put(key, granted, epoch);
+            return granted;
+        }
         
         try {
-            // Find user
-            Optional<User> userOpt = userRepository.findByUsername(username);
-            if (userOpt.isEmpty()) {
-                log.warn("User not found: username={}", username);
-                log.info("=== UnifiedAclService.hasPermission() END - USER NOT FOUND ===");
-                return false;
-            }
-            
-            User user = userOpt.get();
-            List<UserGroup> userGroups = userGroupRepository.findByUserId(user.getId());
-            
-            if (userGroups == null || userGroups.isEmpty()) {
-                log.warn("User {} has no groups assigned", username);
-                log.info("=== UnifiedAclService.hasPermission() END - NO GROUPS ===");
-                return false;
-            }
-
-            // Get all roles from all user's groups
-            List<Role> userRoles = userGroups.stream()
-                    .flatMap(group -> group.getGroup().getRoles().stream())
-                    .distinct()
-                    .toList();
-            
-            if (userRoles.isEmpty()) {
-                log.warn("User {} has no roles through groups", username);
-                log.info("=== UnifiedAclService.hasPermission() END - NO ROLES ===");
-                return false;
-            }
-            
-            log.info("User {} has {} roles: {}", username, userRoles.size(),
-                    userRoles.stream().map(Role::getName).collect(java.util.stream.Collectors.toList()));
-
-            Long projectId = projectRepository.findByName(projectName).get().getId();
-            // Find API permission
-            Optional<ApiPermission> apiPermissionOpt = apiPermissionRepository
-                    .findByProjectAndApi(projectId, apiPath, httpMethod, permissionName);
-            
-            if (apiPermissionOpt.isEmpty()) {
-                log.warn("API permission not found for project: {} api: {} method: {}", 
-                        projectName, apiPath, httpMethod);
-                log.info("=== UnifiedAclService.hasPermission() END - PERMISSION NOT FOUND ===");
-                return false;
-            }
-            
-            ApiPermission apiPermission = apiPermissionOpt.get();
-            log.info("Found API permission: id={}, name={}, isPublic={}, isCritical={}", 
-                    apiPermission.getId(), apiPermission.getName(), apiPermission.isPublic(), apiPermission.isCritical());
-            
-            // Check if API is public
-            if (apiPermission.isPublic()) {
-                log.info("API {} is public, access granted", apiPermission.getName());
-                log.info("=== UnifiedAclService.hasPermission() END - PUBLIC ACCESS ===");
-                return true;
-            }
-            
-            // Check if any of user's roles has this permission
-            for (Role role : userRoles) {
-                boolean hasPermission = rolePermissionRepository.existsByRoleAndPermission(role, apiPermission);
-                if (hasPermission) {
-                    log.info("Permission found for user {} with role {}", username, role.getName());
-                    log.info("=== UnifiedAclService.hasPermission() END - PERMISSION GRANTED ===");
-                    return true;
-                }
-            }
-            
-            log.warn("No permission found for user {} on any role for API {}", username, apiPermission.getName());
-            log.info("=== UnifiedAclService.hasPermission() END - PERMISSION DENIED ===");
-            return false;
-            
+            boolean granted = rolePermissionRepository.userHasPermission(username, projectName, apiPath, httpMethod, permissionName);
+            log.info("Permission check: username={}, projectName={}, apiPath={}, httpMethod={}, permissionName={}, granted={}",
+                    username, projectName, apiPath, httpMethod, permissionName, granted);
+            aclDecisionCache.put(key, granted, epoch);
+            return granted;
         } catch (Exception e) {
-            log.error("=== UnifiedAclService.hasPermission() END - ERROR ===");
             log.error("Error checking permission: username={}, projectName={}, apiPath={}, httpMethod={}, permissionName={}, error={}", 
                     username, projectName, apiPath, httpMethod, permissionName, e.getMessage(), e);
             return false;
@@ -113,84 +71,74 @@ public class UnifiedAclService {
     }
     
     /**
-     * Check if user has permission by permission name only
+     * Evaluate many permission checks at once; results are in request order
+     * Checks for unknown projects are denied and cached decisions are reused; the rest are
+     * grouped by user so each user's permissions are resolved once per batch. A check that fails is denied and not cached.
      */
-    public boolean hasPermissionByName(String username, String permissionName) {
-        log.info("=== UnifiedAclService.hasPermissionByName() START ===");
-        log.info("Parameters: username={}, permissionName={}", username, permissionName);
-        
-        try {
-            // Find user
-            Optional<User> userOpt = userRepository.findByUsername(username);
-            if (userOpt.isEmpty()) {
-                log.warn("User not found: username={}", username);
-                log.info("=== UnifiedAclService.hasPermissionByName() END - USER NOT FOUND ===");
-                return false;
-            }
-            
-            User user = userOpt.get();
-            Set<Group> userGroups = user.getGroups();
-            
-            if (userGroups == null || userGroups.isEmpty()) {
-                log.warn("User {} has no groups assigned", username);
-                log.info("=== UnifiedAclService.hasPermissionByName() END - NO GROUPS ===");
-                return false;
-            }
-            
-            log.info("User {} belongs to {} groups: {}", username, userGroups.size(),
-                    userGroups.stream().map(Group::getName).collect(java.util.stream.Collectors.toList()));
-            
-            // Get all roles from all user's groups
-            List<Role> userRoles = userGroups.stream()
-                    .flatMap(group -> group.getRoles().stream())
-                    .distinct()
-                    .toList();
-            
-            if (userRoles.isEmpty()) {
-                log.warn("User {} has no roles through groups", username);
-                log.info("=== UnifiedAclService.hasPermissionByName() END - NO ROLES ===");
-                return false;
+    public List<Boolean> hasPermissions(List<AclDecisionCache.Key> checks) {
+        long epoch = aclDecisionCache.currentEpoch();
+        Boolean[] results = new Boolean[checks.size()];
+        Map<String, List<Integer>> pendingByUser = new LinkedHashMap<>();
+        for (int i = 0; i < checks.size(); i++) {
+            if (!projectRegistry.contains(checks.get(i).projectName())) {
+                results[i] = false;
+                continue;
             }
-            
-            log.info("User {} has {} roles: {}", username, userRoles.size(),
-                    userRoles.stream().map(Role::getName).collect(java.util.stream.Collectors.toList()));
-            
-            // Find API permission by name
-            Optional<ApiPermission> apiPermissionOpt = apiPermissionRepository.findSingleByName(permissionName);
-            
-            if (apiPermissionOpt.isEmpty()) {
-                log.warn("API permission not found: permissionName={}", permissionName);
-                log.info("=== UnifiedAclService.hasPermissionByName() END - PERMISSION NOT FOUND ===");
-                return false;
+            Boolean cached = aclDecisionCache.get(checks.get(i));
+            if (cached != null) {
+                results[i] = cached;
+            } else {
+                pendingByUser.computeIfAbsent(checks.get(i).username(), username -> new ArrayList<>()).add(i);
             }
-            
-            ApiPermission apiPermission = apiPermissionOpt.get();
-            log.info("Found API permission: id={}, name={}, isPublic={}, isCritical={}", 
-                    apiPermission.getId(), apiPermission.getName(), apiPermission.isPublic(), apiPermission.isCritical());
-            
-            // Check if API is public
-            if (apiPermission.isPublic()) {
-                log.info("API {} is public, access granted", apiPermission.getName());
-                log.info("=== UnifiedAclService.hasPermissionByName() END - PUBLIC ACCESS ===");
-                return true;
+        }
+        
+        boolean useIndex = aclDecisionIndex.isReady();
+        for (Map.Entry<String, List<Integer>> pending : pendingByUser.entrySet()) {
+            List<AclDecisionCache.Key> userChecks = pending.getValue().stream().map(checks::get).toList();
+            if (useIndex) {
+                List<Boolean> granted = aclDecisionIndex.hasPermissions(pending.getKey(), userChecks);
+                for (int j = 0; j < userChecks.size(); j++) {
+                    results[pending.getValue().get(j)] = granted.get(j);
+                    aclDecisionCache.put(userChecks.get(j), granted.get(j), epoch);
+                }
+                continue;
             }
-            
-            // Check if any of user's roles has this permission
-            for (Role role : userRoles) {
-                boolean hasPermission = rolePermissionRepository.existsByRoleAndPermission(role, apiPermission);
-                if (hasPermission) {
-                    log.info("Permission found for user {} with role {}", username, role.getName());
-                    log.info("=== UnifiedAclService.hasPermissionByName() END - PERMISSION GRANTED ===");
-                    return true;
+            for (int j = 0; j < userChecks.size(); j++) {
+                AclDecisionCache.Key check = userChecks.get(j);
+                try {
+                    boolean granted = rolePermissionRepository.userHasPermission(check.username(), check.projectName(),
+                            check.apiPath(), check.httpMethod(), check.permissionName());
+                    results[pending.getValue().get(j)] = granted;
+                    aclDecisionCache.put(check, granted, epoch);
+                } catch (Exception e) {
+                    log.error("Error checking permission in batch: {}, error={}", check, e.getMessage());
+                    results[pending.getValue().get(j)] = false;
                 }
             }
-            
-            log.warn("No permission found for user {} on any role for API {}", username, apiPermission.getName());
-            log.info("=== UnifiedAclService.hasPermissionByName() END - PERMISSION DENIED ===");
-            return false;
-            
+        }
+        
+        log.info("Batch permission check: {} checks, {} users evaluated, {} answered without evaluation",
+                checks.size(), pendingByUser.size(),
+                checks.size() - pendingByUser.values().stream().mapToInt(List::size).sum());
+        return Arrays.asList(results);
+    }
+    
+    /**
+     * Check if user has permission by permission name only
+     */
+    public boolean hasPermissionByName(String username, String permissionName) {
+        if (aclDecisionIndex.isReady()) {
+            boolean granted = aclDecisionIndex.hasPermissionByName(username, permissionName);
+            log.debug("Permission check by name (index): username={}, permissionName={}, granted={}",
+                    username, permissionName, granted);
+            return granted;
+        }
+        
+        try {
+            boolean granted = rolePermissionRepository.userHasPermissionByName(username, permissionName);
+            log.info("Permission check by name: username={}, permissionName={}, granted={}", username, permissionName, granted);
+            return granted;
         } catch (Exception e) {
-            log.error("=== UnifiedAclService.hasPermissionByName() END - ERROR ===");
             log.error("Error checking permission by name: username={}, permissionName={}, error={}", 
                     username, permissionName, e.getMessage(), e);
             return false;
@@ -203,10 +151,15 @@ public class UnifiedAclService {
     public ApiPermission registerApiPermission(String name, String projectName, String apiPath, 
                                              String httpMethod, String description, String persianName, 
                                              boolean isCritical, boolean isPublic) {
+        Long projectId = projectRegistry.findId(projectName).orElse(null);
+        if (projectId == null) {
+            log.error("Project not found: {}", projectName);
+            throw new RuntimeException("Project not found: " + projectName);
+        }
+        
         try {
             log.info("Registering API permission: {} for project: {}", name, projectName);
 
-            Long projectId = projectRepository.findByName(projectName).get().getId();
             // Check if already exists
             Optional<ApiPermission> existing = apiPermissionRepository
                     .findByProjectAndApi(projectId, apiPath, httpMethod, name);
@@ -219,11 +172,13 @@ public class UnifiedAclService {
                 apiPermission.setPersianName(persianName);
                 apiPermission.setCritical(isCritical);
                 apiPermission.setPublic(isPublic);
-                return apiPermissionRepository.save(apiPermission);
+                ApiPermission updated = apiPermissionRepository.save(apiPermission);
+                aclDecisionIndex.permissionChanged(updated.getId());
+                return updated;
             }
             
-            // Find project by name
-            Optional<Project> projectOpt = projectRepository.findByName(projectName);
+            // Find project by id
+            Optional<Project> projectOpt = projectRepository.findById(projectId);
             if (projectOpt.isEmpty()) {
                 log.error("Project not found: {}", projectName);
                 throw new RuntimeException("Project not found: " + projectName);
@@ -241,6 +196,7 @@ public class UnifiedAclService {
             apiPermission.setPublic(isPublic);
             
             ApiPermission saved = apiPermissionRepository.save(apiPermission);
+            aclDecisionIndex.permissionChanged(saved.getId());
             log.info("API permission registered successfully: {}", saved.getName());
             return saved;
             
@@ -0,0 +1,60 @@
+-- ==============================================
+-- ACL Database Schema - Authorization query indexes
+-- Supports the single-query permission check (RolePermissionRepository.userHasPermission)
+-- ==============================================
+
+-- ==============================================
+-- 1. COVERING INDEXES FOR PERMISSION LOOKUP
+-- ==============================================
+
+-- (project, path, method, name) lookup; id and is_public are included so the
+-- permission row itself is never visited
+CREATE INDEX idx_api_permissions_lookup
+    ON api_permissions(project_id, api_path, http_method, name) INCLUDE (id, is_public);
+
+-- Lookup by permission name (hasPermissionByName)
+CREATE INDEX idx_api_permissions_name_covering
+    ON api_permissions(name) INCLUDE (id, is_public);
+
+-- users -> user_groups -> group_roles -> role_permissions walk:
+-- UNIQUE(user_id, group_id), UNIQUE(group_id, role_id) and UNIQUE(role_id, permission_id)
+-- already provide composite indexes in join order; username lookup uses UNIQUE(username)
+
+-- ==============================================
+-- 2. DROP INDEXES SUPERSEDED BY COMPOSITE ONES
+-- ==============================================
+
+-- Each of these is a prefix of a unique or covering index above and only adds write cost
+DROP INDEX IF EXISTS idx_api_permissions_name;
+DROP INDEX IF EXISTS idx_api_permissions_project_id;
+DROP INDEX IF EXISTS idx_user_groups_user_id;
+DROP INDEX IF EXISTS idx_group_roles_group_id;
+DROP INDEX IF EXISTS idx_role_permissions_role_id;
+
+-- ==============================================
+-- 3. VERIFICATION QUERIES (for testing)
+-- ==============================================
+
+-- Every step of the plan should be an Index Only Scan (run VACUUM ANALYZE first so the
+-- visibility map is current); the number of roles only changes the row count of the
+-- group_roles step, never the number of round trips:
+/*
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT EXISTS (
+    SELECT 1
+    FROM api_permissions ap
+    JOIN projects p ON p.id = ap.project_id
+    WHERE p.name = 'service1' AND ap.api_path = '/hello' AND ap.http_method = 'GET'
+      AND ap.name = 'SERVICE1_HELLO_ACCESS'
+      AND EXISTS (SELECT 1 FROM users u
+                  JOIN user_groups ug ON ug.user_id = u.id
+                  JOIN group_roles gr ON gr.group_id = ug.group_id
+                  WHERE u.username = 'admin')
+      AND (ap.is_public OR EXISTS (
+                  SELECT 1 FROM users u
+                  JOIN user_groups ug ON ug.user_id = u.id
+                  JOIN group_roles gr ON gr.group_id = ug.group_id
+                  JOIN role_permissions rp ON rp.role_id = gr.role_id AND rp.permission_id = ap.id
+                  WHERE u.username = 'admin'))
+);
+*/
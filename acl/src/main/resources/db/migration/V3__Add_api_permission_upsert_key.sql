@@ -0,0 +1,48 @@
+-- ==============================================
+-- ACL Database Schema - API permission natural key
+-- Supports bulk manifest registration (INSERT ... ON CONFLICT) and manifest change detection
+-- ==============================================
+
+-- ==============================================
+-- 1. MERGE DUPLICATE API PERMISSIONS
+-- ==============================================
+
+-- Rows sharing (project, path, method, name) are merged into the lowest id;
+-- role grants on the duplicates are moved to the kept row first
+CREATE TEMPORARY TABLE api_permission_duplicates ON COMMIT DROP AS
+SELECT id AS duplicate_id, keep_id
+FROM (
+    SELECT id, MIN(id) OVER (PARTITION BY project_id, api_path, http_method, name) AS keep_id
+    FROM api_permissions
+) ranked
+WHERE id <> keep_id;
+
+INSERT INTO role_permissions (role_id, permission_id)
+SELECT DISTINCT rp.role_id, d.keep_id
+FROM role_permissions rp
+JOIN api_permission_duplicates d ON d.duplicate_id = rp.permission_id
+ON CONFLICT (role_id, permission_id) DO NOTHING;
+
+DELETE FROM role_permissions
+WHERE permission_id IN (SELECT duplicate_id FROM api_permission_duplicates);
+
+DELETE FROM api_permissions
+WHERE id IN (SELECT duplicate_id FROM api_permission_duplicates);
+
+-- ==============================================
+-- 2. UNIQUE KEY OVER PROJECT / PATH / METHOD / NAME
+-- ==============================================
+
+-- Also serves the permission lookup, so it replaces idx_api_permissions_lookup
+-- (same columns and included columns)
+CREATE UNIQUE INDEX uk_api_permissions_project_api
+    ON api_permissions(project_id, api_path, http_method, name) INCLUDE (id, is_public);
+
+DROP INDEX IF EXISTS idx_api_permissions_lookup;
+
+-- ==============================================
+-- 3. MANIFEST HASH PER PROJECT
+-- ==============================================
+
+-- SHA-256 of the last API manifest registered for the project; an identical manifest is skipped
+ALTER TABLE projects ADD COLUMN manifest_hash VARCHAR(64);
@@ -0,0 +1,33 @@
+-- ==============================================
+-- ACL Database Schema - Manifest hash invalidation
+-- projects.manifest_hash may only skip a manifest while the stored APIs are exactly
+-- what that manifest wrote; any other write to a project's api_permissions clears it
+-- ==============================================
+
+-- ==============================================
+-- 1. TRIGGER FUNCTION
+-- ==============================================
+
+-- Covers single registration, admin edits and direct SQL alike. The manifest
+-- registration stores the new hash after its own writes in the same transaction.
+CREATE OR REPLACE FUNCTION reset_project_manifest_hash() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        UPDATE projects SET manifest_hash = NULL
+        WHERE id = OLD.project_id AND manifest_hash IS NOT NULL;
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        UPDATE projects SET manifest_hash = NULL
+        WHERE id = NEW.project_id AND manifest_hash IS NOT NULL;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ==============================================
+-- 2. TRIGGER ON API PERMISSIONS
+-- ==============================================
+
+CREATE TRIGGER trg_api_permissions_reset_manifest_hash
+    AFTER INSERT OR UPDATE OR DELETE ON api_permissions
+    FOR EACH ROW EXECUTE FUNCTION reset_project_manifest_hash();
@@ -0,0 +1,186 @@
+package com.eureka.acl.service;
+
+import com.eureka.acl.dto.PolicyChange;
+import com.eureka.acl.repository.ApiPermissionRepository;
+import com.eureka.acl.repository.GroupRoleRepository;
+import com.eureka.acl.repository.RolePermissionRepository;
+import com.eureka.acl.repository.UserGroupRepository;
+import com.eureka.acl.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The index must give the same answers as the database path it replaces:
+ * a user without any role is denied (even for public APIs), public APIs are granted
+ * to every user with a role, and a permission name shared by several APIs is rejected
+ * by the name-only check.
+ */
+class AclDecisionIndexTest {
+
+	private final ApiPermissionRepository apiPermissionRepository = mock(ApiPermissionRepository.class);
+	private final RolePermissionRepository rolePermissionRepository = mock(RolePermissionRepository.class);
+	private final GroupRoleRepository groupRoleRepository = mock(GroupRoleRepository.class);
+	private final UserGroupRepository userGroupRepository = mock(UserGroupRepository.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final AclDecisionCache decisionCache = mock(AclDecisionCache.class);
+	private final AclChangeFeed changeFeed = mock(AclChangeFeed.class);
+
+	private AclDecisionIndex index;
+
+	@BeforeEach
+	void setUp() {
+		// id, project, apiPath, httpMethod, name, isPublic
+		when(apiPermissionRepository.findIndexEntries()).thenReturn(rows(
+				new Object[]{1L, "service1", "/api/orders", "GET", "ORDER_READ", false},
+				new Object[]{2L, "service1", "/api/health", "GET", "HEALTH", true},
+				new Object[]{3L, "service1", "/api/report", "GET", "REPORT", false},
+				new Object[]{4L, "service2", "/api/report", "GET", "REPORT", false},
+				new Object[]{5L, "service1", "/api/orders", "POST", "ORDER_WRITE", false}));
+		// role 10 -> ORDER_READ, REPORT (service1)
+		when(rolePermissionRepository.findAllRolePermissionIds()).thenReturn(rows(
+				new Object[]{10L, 1L},
+				new Object[]{10L, 3L}));
+		// group 100 -> role 10, group 101 has no roles
+		when(groupRoleRepository.findAllGroupRoleIds()).thenReturn(rows(
+				new Object[]{100L, 10L}));
+		// alice -> group 100, carol -> group 101, bob has no group
+		when(userGroupRepository.findAllUserGroupIds()).thenReturn(rows(
+				new Object[]{1000L, 100L},
+				new Object[]{1002L, 101L}));
+		when(userRepository.findAllUsernames()).thenReturn(rows(
+				new Object[]{1000L, "alice"},
+				new Object[]{1001L, "bob"},
+				new Object[]{1002L, "carol"}));
+
+		index = new AclDecisionIndex(apiPermissionRepository, rolePermissionRepository, groupRoleRepository,
+				userGroupRepository, userRepository, decisionCache, changeFeed, mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(index, "enabled", true);
+		index.rebuild();
+	}
+
+	@Test
+	void notReadyBeforeFirstRebuild() {
+		AclDecisionIndex fresh = new AclDecisionIndex(apiPermissionRepository, rolePermissionRepository, groupRoleRepository,
+				userGroupRepository, userRepository, decisionCache, changeFeed, mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(fresh, "enabled", true);
+
+		assertThat(fresh.isReady()).isFalse();
+		assertThat(index.isReady()).isTrue();
+	}
+
+	@Test
+	void grantsPermissionHeldThroughGroupAndRole() {
+		assertThat(index.hasPermission("alice", "service1", "/api/orders", "GET", "ORDER_READ")).isTrue();
+		assertThat(index.hasPermissionByName("alice", "ORDER_READ")).isTrue();
+	}
+
+	@Test
+	void deniesPermissionNotHeld() {
+		assertThat(index.hasPermission("alice", "service1", "/api/orders", "POST", "ORDER_WRITE")).isFalse();
+		assertThat(index.hasPermission("alice", "service2", "/api/report", "GET", "REPORT")).isFalse();
+		assertThat(index.hasPermissionByName("alice", "ORDER_WRITE")).isFalse();
+	}
+
+	@Test
+	void deniesUnknownPermissionAndUnknownUser() {
+		assertThat(index.hasPermission("alice", "service1", "/api/unknown", "GET", "UNKNOWN")).isFalse();
+		assertThat(index.hasPermissionByName("alice", "UNKNOWN")).isFalse();
+		assertThat(index.hasPermission("mallory", "service1", "/api/orders", "GET", "ORDER_READ")).isFalse();
+	}
+
+	@Test
+	void publicPermissionGrantedToEveryUserWithARole() {
+		assertThat(index.hasPermission("alice", "service1", "/api/health", "GET", "HEALTH")).isTrue();
+		assertThat(index.hasPermissionByName("alice", "HEALTH")).isTrue();
+	}
+
+	@Test
+	void userWithoutRolesIsDeniedEvenForPublicPermission() {
+		// bob has no group, carol has a group without roles
+		assertThat(index.hasPermission("bob", "service1", "/api/health", "GET", "HEALTH")).isFalse();
+		assertThat(index.hasPermissionByName("bob", "HEALTH")).isFalse();
+		assertThat(index.hasPermission("carol", "service1", "/api/health", "GET", "HEALTH")).isFalse();
+		assertThat(index.hasPermissionByName("carol", "HEALTH")).isFalse();
+	}
+
+	@Test
+	void ambiguousPermissionNameIsRejectedByNameButResolvedByKey() {
+		assertThat(index.hasPermissionByName("alice", "REPORT")).isFalse();
+		assertThat(index.hasPermission("alice", "service1", "/api/report", "GET", "REPORT")).isTrue();
+	}
+
+	@Test
+	void batchCheckMatchesSingleChecks() {
+		List<AclDecisionCache.Key> checks = List.of(
+				new AclDecisionCache.Key("alice", "service1", "/api/orders", "GET", "ORDER_READ"),
+				new AclDecisionCache.Key("alice", "service1", "/api/orders", "POST", "ORDER_WRITE"),
+				new AclDecisionCache.Key("alice", "service1", "/api/health", "GET", "HEALTH"),
+				new AclDecisionCache.Key("alice", "service2", "/api/report", "GET", "REPORT"));
+
+		assertThat(index.hasPermissions("alice", checks)).containsExactly(true, false, true, false);
+		assertThat(index.hasPermissions("bob", checks)).containsExactly(false, false, false, false);
+	}
+
+	@Test
+	void roleChangeIsAppliedToItsUsers() {
+		when(rolePermissionRepository.findPermissionIdsByRoleId(10L)).thenReturn(List.of(1L, 5L));
+
+		index.roleChanged(10L);
+
+		assertThat(index.hasPermission("alice", "service1", "/api/orders", "POST", "ORDER_WRITE")).isTrue();
+		assertThat(index.hasPermission("alice", "service1", "/api/report", "GET", "REPORT")).isFalse();
+		verify(changeFeed).publish(eq(PolicyChange.TYPE_ROLE), eq(10L), eq(List.of("alice")), any(), anyCollection());
+	}
+
+	@Test
+	void userGainingAGroupGainsItsRoles() {
+		when(userRepository.findUsernameById(1001L)).thenReturn(Optional.of("bob"));
+		when(userGroupRepository.findGroupIdsByUserId(1001L)).thenReturn(List.of(100L));
+
+		index.userChanged(1001L);
+
+		assertThat(index.hasPermission("bob", "service1", "/api/orders", "GET", "ORDER_READ")).isTrue();
+		assertThat(index.hasPermission("bob", "service1", "/api/health", "GET", "HEALTH")).isTrue();
+	}
+
+	@Test
+	void groupLosingItsRolesDeniesItsUsers() {
+		when(groupRoleRepository.findRoleIdsByGroupId(100L)).thenReturn(List.of());
+
+		index.groupChanged(100L);
+
+		assertThat(index.hasPermission("alice", "service1", "/api/orders", "GET", "ORDER_READ")).isFalse();
+		assertThat(index.hasPermission("alice", "service1", "/api/health", "GET", "HEALTH")).isFalse();
+	}
+
+	@Test
+	void rebuildResolvesNameOnceItIsUniqueAgain() {
+		when(apiPermissionRepository.findIndexEntries()).thenReturn(rows(
+				new Object[]{1L, "service1", "/api/orders", "GET", "ORDER_READ", false},
+				new Object[]{3L, "service1", "/api/report", "GET", "REPORT", false},
+				new Object[]{4L, "service2", "/api/report", "GET", "REPORT_V2", false}));
+
+		index.rebuild();
+
+		assertThat(index.hasPermissionByName("alice", "REPORT")).isTrue();
+		assertThat(index.hasPermissionByName("alice", "REPORT_V2")).isFalse();
+	}
+
+	private static List<Object[]> rows(Object[]... rows) {
+		return Arrays.asList(rows);
+	}
+}
@@ -0,0 +1,231 @@
+package com.eureka.acl.service;
+
+import com.eureka.acl.dto.MembershipDelta;
+import com.eureka.acl.entity.Group;
+import com.eureka.acl.entity.Role;
+import com.eureka.acl.entity.User;
+import com.eureka.acl.repository.ApiPermissionRepository;
+import com.eureka.acl.repository.GroupRepository;
+import com.eureka.acl.repository.GroupRoleRepository;
+import com.eureka.acl.repository.RolePermissionRepository;
+import com.eureka.acl.repository.RoleRepository;
+import com.eureka.acl.repository.UserGroupRepository;
+import com.eureka.acl.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Membership reconciliation: only the difference between the current and the requested
+ * members is written, and the delta reports exactly what was added, removed and not found.
+ */
+class AclServiceTest {
+
+	private static final long ROLE_ID = 10L;
+
+	private final ApiPermissionRepository apiPermissionRepository = mock(ApiPermissionRepository.class);
+	private final RoleRepository roleRepository = mock(RoleRepository.class);
+	private final RolePermissionRepository rolePermissionRepository = mock(RolePermissionRepository.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final GroupRepository groupRepository = mock(GroupRepository.class);
+	private final UserGroupRepository userGroupRepository = mock(UserGroupRepository.class);
+	private final GroupRoleRepository groupRoleRepository = mock(GroupRoleRepository.class);
+	private final AclDecisionIndex aclDecisionIndex = mock(AclDecisionIndex.class);
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+	private AclService aclService;
+
+	@BeforeEach
+	void setUp() {
+		aclService = new AclService(apiPermissionRepository, roleRepository, rolePermissionRepository, userRepository,
+				groupRepository, userGroupRepository, groupRoleRepository, aclDecisionIndex, jdbcTemplate);
+		ReflectionTestUtils.setField(aclService, "membershipBatchSize", 500);
+
+		Role role = new Role();
+		role.setId(ROLE_ID);
+		role.setName("EDITOR");
+		when(roleRepository.findByName("EDITOR")).thenReturn(Optional.of(role));
+		// EDITOR currently holds ORDER_READ (1) and ORDER_WRITE (2)
+		when(rolePermissionRepository.findPermissionNamesByRoleId(ROLE_ID)).thenReturn(rows(
+				new Object[]{1L, "ORDER_READ"},
+				new Object[]{2L, "ORDER_WRITE"}));
+		when(apiPermissionRepository.findIdsByNames(anyCollection())).thenReturn(rows(
+				new Object[]{1L, "ORDER_READ"},
+				new Object[]{2L, "ORDER_WRITE"},
+				new Object[]{3L, "REPORT_READ"}));
+	}
+
+	@Test
+	void writesOnlyTheDifference() throws SQLException {
+		MembershipDelta delta = aclService.updateRolePermissions("EDITOR",
+				List.of("ORDER_WRITE", "REPORT_READ", "MISSING"));
+
+		assertThat(delta.subject()).isEqualTo("EDITOR");
+		assertThat(delta.added()).containsExactly("REPORT_READ");
+		assertThat(delta.removed()).containsExactly("ORDER_READ");
+		assertThat(delta.unchanged()).isEqualTo(1);
+		assertThat(delta.notFound()).containsExactly("MISSING");
+		assertThat(delta.hasChanges()).isTrue();
+
+		assertThat(batch("DELETE FROM role_permissions", 1L)).containsExactly(1L);
+		assertThat(batch("INSERT INTO role_permissions", 3L)).containsExactly(3L);
+		verify(aclDecisionIndex).roleChanged(ROLE_ID);
+	}
+
+	@Test
+	void unchangedListWritesNothing() {
+		MembershipDelta delta = aclService.updateRolePermissions("EDITOR", List.of("ORDER_READ", "ORDER_WRITE"));
+
+		assertThat(delta.added()).isEmpty();
+		assertThat(delta.removed()).isEmpty();
+		assertThat(delta.unchanged()).isEqualTo(2);
+		assertThat(delta.hasChanges()).isFalse();
+		verifyNoInteractions(jdbcTemplate);
+		verify(aclDecisionIndex, never()).roleChanged(anyLong());
+	}
+
+	@Test
+	void onlyUnknownNamesAreReportedWithoutChanges() {
+		MembershipDelta delta = aclService.updateRolePermissions("EDITOR",
+				List.of("ORDER_READ", "ORDER_WRITE", "MISSING", "ALSO_MISSING"));
+
+		assertThat(delta.notFound()).containsExactly("MISSING", "ALSO_MISSING");
+		assertThat(delta.hasChanges()).isFalse();
+		verifyNoInteractions(jdbcTemplate);
+	}
+
+	@Test
+	void duplicateAndNullNamesAreIgnored() {
+		MembershipDelta delta = aclService.updateRolePermissions("EDITOR",
+				Arrays.asList("REPORT_READ", null, "REPORT_READ", "ORDER_READ"));
+
+		assertThat(delta.added()).containsExactly("REPORT_READ");
+		assertThat(delta.removed()).containsExactly("ORDER_WRITE");
+		assertThat(delta.unchanged()).isEqualTo(1);
+		assertThat(delta.notFound()).isEmpty();
+	}
+
+	@Test
+	void emptyListRemovesEveryMemberWithoutResolvingNames() {
+		MembershipDelta delta = aclService.updateRolePermissions("EDITOR", List.of());
+
+		assertThat(delta.added()).isEmpty();
+		assertThat(delta.removed()).containsExactly("ORDER_READ", "ORDER_WRITE");
+		assertThat(delta.unchanged()).isZero();
+		verify(apiPermissionRepository, never()).findIdsByNames(anyCollection());
+		verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT"), anyCollection(), anyInt(), any());
+		verify(aclDecisionIndex).roleChanged(ROLE_ID);
+	}
+
+	@Test
+	void ambiguousPermissionNameIsRejectedBeforeAnyWrite() {
+		when(apiPermissionRepository.findIdsByNames(anyCollection())).thenReturn(rows(
+				new Object[]{3L, "REPORT_READ"},
+				new Object[]{4L, "REPORT_READ"}));
+
+		assertThatThrownBy(() -> aclService.updateRolePermissions("EDITOR", List.of("REPORT_READ")))
+				.isInstanceOf(RuntimeException.class)
+				.hasMessage("Permission name is not unique: REPORT_READ");
+		verifyNoInteractions(jdbcTemplate);
+		verify(aclDecisionIndex, never()).roleChanged(anyLong());
+	}
+
+	@Test
+	void unknownRoleIsRejected() {
+		when(roleRepository.findByName(anyString())).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> aclService.updateRolePermissions("NOBODY", List.of("ORDER_READ")))
+				.isInstanceOf(RuntimeException.class)
+				.hasMessage("Role not found: NOBODY");
+		verifyNoInteractions(jdbcTemplate);
+	}
+
+	@Test
+	void userGroupsAreReconciledAndUserIndexUpdated() throws SQLException {
+		User user = new User();
+		user.setId(1000L);
+		user.setUsername("alice");
+		when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+		when(userGroupRepository.findGroupNamesByUserId(1000L)).thenReturn(rows(new Object[]{100L, "STAFF"}));
+		when(groupRepository.findIdsByNames(anyCollection())).thenReturn(rows(
+				new Object[]{100L, "STAFF"},
+				new Object[]{101L, "AUDIT"}));
+
+		MembershipDelta delta = aclService.updateUserGroups("alice", List.of("STAFF", "AUDIT"));
+
+		assertThat(delta.added()).containsExactly("AUDIT");
+		assertThat(delta.removed()).isEmpty();
+		assertThat(delta.unchanged()).isEqualTo(1);
+		assertThat(batch("INSERT INTO user_groups", 1000L)).containsExactly(101L);
+		verify(aclDecisionIndex).userChanged(1000L);
+	}
+
+	@Test
+	void groupRolesAreReconciledAndGroupIndexUpdated() throws SQLException {
+		Group group = new Group();
+		group.setId(100L);
+		group.setName("STAFF");
+		when(groupRepository.findByName("STAFF")).thenReturn(Optional.of(group));
+		when(groupRoleRepository.findRoleNamesByGroupId(100L)).thenReturn(rows(
+				new Object[]{10L, "EDITOR"},
+				new Object[]{11L, "VIEWER"}));
+		when(roleRepository.findIdsByNames(anyCollection())).thenReturn(rows(new Object[]{11L, "VIEWER"}));
+
+		MembershipDelta delta = aclService.updateGroupRoles("STAFF", List.of("VIEWER"));
+
+		assertThat(delta.added()).isEmpty();
+		assertThat(delta.removed()).containsExactly("EDITOR");
+		assertThat(batch("DELETE FROM group_roles", 100L)).containsExactly(10L);
+		verify(aclDecisionIndex).groupChanged(100L);
+	}
+
+	/**
+	 * Ids written by the batch whose SQL starts with the prefix; also checks that every row
+	 * is bound to the owner (role, user or group) being updated
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private Collection<Long> batch(String sqlPrefix, long ownerId) throws SQLException {
+		ArgumentCaptor<Collection> ids = ArgumentCaptor.forClass(Collection.class);
+		ArgumentCaptor<ParameterizedPreparedStatementSetter> setter =
+				ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+		verify(jdbcTemplate).batchUpdate(startsWith(sqlPrefix), ids.capture(), eq(500), setter.capture());
+
+		Collection<Long> written = ids.getValue();
+		for (Long id : written) {
+			PreparedStatement statement = mock(PreparedStatement.class);
+			setter.getValue().setValues(statement, id);
+			verify(statement).setLong(1, ownerId);
+			verify(statement).setLong(2, id);
+		}
+		return written;
+	}
+
+	private static List<Object[]> rows(Object[]... rows) {
+		return Arrays.asList(rows);
+	}
+}
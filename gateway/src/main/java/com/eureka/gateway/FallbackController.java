@@ -1,5 +1,6 @@
 package com.eureka.gateway;
 
+import com.eureka.gateway.util.GatewayKeyGenerator;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,6 +13,12 @@ import java.util.Map;
 @RestController
 public class FallbackController {
 
+    private final GatewayKeyGenerator gatewayKeyGenerator;
+
+    public FallbackController(GatewayKeyGenerator gatewayKeyGenerator) {
+        this.gatewayKeyGenerator = gatewayKeyGenerator;
+    }
+
     @GetMapping("/fallback")
     public Mono<ResponseEntity<Map<String, Object>>> fallback() {
         Map<String, Object> response = new HashMap<>();
@@ -25,11 +32,15 @@ public class FallbackController {
 
     @GetMapping("/health")
     public Mono<ResponseEntity<Map<String, Object>>> health() {
+        // Keys are loaded in the background; report not-ready until they exist
+        boolean keysReady = gatewayKeyGenerator.areKeysAvailable();
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "UP");
+        response.put("status", keysReady ? "UP" : "STARTING");
         response.put("service", "api-gateway");
+        response.put("keysReady", keysReady);
         response.put("timestamp", System.currentTimeMillis());
         
-        return Mono.just(ResponseEntity.ok(response));
+        return Mono.just(ResponseEntity.status(keysReady ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(response));
     }
 } 
\ No newline at end of file
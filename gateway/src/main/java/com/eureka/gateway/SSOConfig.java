@@ -1,9 +1,13 @@
 package com.eureka.gateway;
 
+import com.eureka.gateway.config.NettyTransportConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.LoopResources;
 
 @Configuration
 public class SSOConfig {
@@ -15,15 +19,26 @@ public class SSOConfig {
     private int ssoServiceTimeout;
 
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(ReactorClientHttpConnector gatewayClientConnector) {
         return WebClient.builder()
+                .clientConnector(gatewayClientConnector)
                 .baseUrl(ssoServiceUrl)
                 .build();
     }
 
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient.Builder webClientBuilder(ReactorClientHttpConnector gatewayClientConnector) {
+        return WebClient.builder()
+                .clientConnector(gatewayClientConnector);
+    }
+
+    // Outbound SSO/ACL calls share the gateway event loops (and native transport)
+    @Bean
+    public ReactorClientHttpConnector gatewayClientConnector(LoopResources gatewayLoopResources,
+                                                             NettyTransportConfig nettyTransportConfig) {
+        HttpClient httpClient = HttpClient.create()
+                .runOn(gatewayLoopResources, nettyTransportConfig.isNativePreferred());
+        return new ReactorClientHttpConnector(httpClient);
     }
 
     public String getSsoServiceUrl() {
@@ -0,0 +1,82 @@
+package com.eureka.gateway.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Netty Transport Configuration
+ * Selects the event loop transport (io_uring / epoll / NIO) for the inbound
+ * server, the route proxy client and the WebClients used by the gateway.
+ *
+ * gateway.netty.transport=native -> io_uring if the kernel supports it, then epoll, then NIO
+ * gateway.netty.transport=nio    -> always NIO
+ */
+@Configuration
+@Log4j2
+public class NettyTransportConfig {
+
+    @Value("${gateway.netty.transport:native}")
+    private String transport;
+
+    @Value("${gateway.netty.worker-threads:0}")
+    private int workerThreads;
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources gatewayLoopResources() {
+        int workers = workerThreads > 0 ? workerThreads : LoopResources.DEFAULT_IO_WORKER_COUNT;
+        log.info("Netty transport requested: {}, effective: {}, worker threads: {}",
+                transport, effectiveTransport(), workers);
+        return LoopResources.create("gateway-http", workers, true);
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<NettyReactiveWebServerFactory> nettyTransportServerCustomizer(
+            LoopResources gatewayLoopResources) {
+        return factory -> factory.addServerCustomizers(
+                httpServer -> httpServer.runOn(gatewayLoopResources, isNativePreferred()));
+    }
+
+    @Bean
+    public HttpClientCustomizer nettyTransportHttpClientCustomizer(LoopResources gatewayLoopResources) {
+        return httpClient -> httpClient.runOn(gatewayLoopResources, isNativePreferred());
+    }
+
+    public boolean isNativePreferred() {
+        return !"nio".equalsIgnoreCase(transport);
+    }
+
+    /**
+     * Transport Netty will actually use. Reactor Netty falls back to NIO on its own
+     * when the native libraries are missing; this only reports what it will pick.
+     */
+    public String effectiveTransport() {
+        if (!isNativePreferred()) {
+            return "nio";
+        }
+        if (isAvailable("io.netty.incubator.channel.uring.IOUring")) {
+            return "io_uring";
+        }
+        if (isAvailable("io.netty.channel.epoll.Epoll")) {
+            return "epoll";
+        }
+        return "nio";
+    }
+
+    private boolean isAvailable(String className) {
+        try {
+            Class<?> transportClass = Class.forName(className);
+            return (Boolean) transportClass.getMethod("isAvailable").invoke(null);
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (Throwable e) {
+            log.debug("Native transport {} not usable: {}", className, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -1,10 +1,26 @@
 package com.eureka.gateway.config;
 
+import com.eureka.gateway.filter.BodySizeLimitGatewayFilterFactory;
+import com.eureka.gateway.filter.ResponseCompressionGatewayFilterFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+import static com.eureka.gateway.config.TrieRoutePredicateHandlerMapping.pathRoute;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
 
 /**
  * Simple Gateway Configuration
@@ -14,40 +30,97 @@ import org.springframework.context.annotation.Configuration;
 @RequiredArgsConstructor
 public class SimpleGatewayConfig {
 
+    private final BodySizeLimitGatewayFilterFactory bodySizeLimit;
+    private final ResponseCompressionGatewayFilterFactory responseCompression;
+
+    @Value("${gateway.limits.service1.max-request-size:10MB}")
+    private DataSize service1MaxRequestSize;
+
+    @Value("${gateway.limits.service1.max-response-size:10MB}")
+    private DataSize service1MaxResponseSize;
+
+    @Value("${gateway.limits.acl.max-request-size:1MB}")
+    private DataSize aclMaxRequestSize;
+
+    @Value("${gateway.limits.acl.max-response-size:16MB}")
+    private DataSize aclMaxResponseSize;
+
+    @Value("${gateway.compression.min-response-size:1KB}")
+    private DataSize compressionMinResponseSize;
+
+    @Value("${gateway.compression.mime-types:application/json,text/plain,text/html}")
+    private List<String> compressionMimeTypes;
+
+    @Value("${gateway.routes.sso.timeout:5000}")
+    private long ssoTimeout;
+
+    @Value("${gateway.routes.service1.timeout:15000}")
+    private long service1Timeout;
+
+    @Value("${gateway.routes.acl.timeout:5000}")
+    private long aclTimeout;
+
     @Bean
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
         return builder.routes()
                 // SSO Routes - public access (no authentication required)
-                .route("sso-route", r -> r
-                        .path("/sso/**")
+                .route("sso-route", pathRoute("/sso/**", r -> r
                         .filters(f -> f
                                 .stripPrefix(1)
                                 .addRequestHeader("X-Gateway-Source", "api-gateway"))
-                        .uri("http://localhost:8081"))
+                        .uri("http://localhost:8081")
+                        .metadata(RESPONSE_TIMEOUT_ATTR, ssoTimeout)))
 
                 // Service1 Routes - with authentication
-                .route("service1-route", r -> r
-                        .path("/service1/**")
+                .route("service1-route", pathRoute("/service1/**", r -> r
                         .filters(f -> f
 //                                .stripPrefix(1)
+                                .filter(responseCompression.apply(compressionConfig()))
+                                .filter(bodySizeLimit.apply(new BodySizeLimitGatewayFilterFactory.Config()
+                                        .setMaxRequestSize(service1MaxRequestSize)
+                                        .setMaxResponseSize(service1MaxResponseSize)))
                                 .addRequestHeader("X-Gateway-Source", "api-gateway"))
-                        .uri("http://localhost:8082/service1"))
+                        .uri("http://localhost:8082/service1")
+                        .metadata(RESPONSE_TIMEOUT_ATTR, service1Timeout)))
 
                 // ACL Routes - public access (no authentication required)
-                .route("acl-route", r -> r
-                        .path("/acl/**")
+                .route("acl-route", pathRoute("/acl/**", r -> r
                         .filters(f -> f
                                 .stripPrefix(1)
+                                .filter(responseCompression.apply(compressionConfig()))
+                                .filter(bodySizeLimit.apply(new BodySizeLimitGatewayFilterFactory.Config()
+                                        .setMaxRequestSize(aclMaxRequestSize)
+                                        .setMaxResponseSize(aclMaxResponseSize)))
                                 .addRequestHeader("X-Gateway-Source", "api-gateway"))
-                        .uri("http://localhost:8083"))
+                        .uri("http://localhost:8083")
+                        .metadata(RESPONSE_TIMEOUT_ATTR, aclTimeout)))
 
                 // Gateway Health Route - public access
-                .route("gateway-health-route", r -> r
-                        .path("/api/gateway/health")
+                .route("gateway-health-route", pathRoute("/api/gateway/health", r -> r
                         .filters(f -> f
                                 .addRequestHeader("X-Gateway-Source", "api-gateway"))
-                        .uri("http://localhost:8080"))
+                        .uri("http://localhost:8080")))
 
                 .build();
     }
+
+    private ResponseCompressionGatewayFilterFactory.Config compressionConfig() {
+        return new ResponseCompressionGatewayFilterFactory.Config()
+                .setMinResponseSize(compressionMinResponseSize)
+                .setMediaTypes(compressionMimeTypes.stream().map(MediaType::parseMediaType).toList());
+    }
+
+    /**
+     * Replaces the default linear route lookup with the path trie lookup
+     */
+    @Bean
+    @ConditionalOnProperty(name = "gateway.routing.trie.enabled", havingValue = "true", matchIfMissing = true)
+    public RoutePredicateHandlerMapping routePredicateHandlerMapping(FilteringWebHandler webHandler,
+                                                                     RouteLocator routeLocator,
+                                                                     RouteDefinitionLocator routeDefinitionLocator,
+                                                                     GlobalCorsProperties globalCorsProperties,
+                                                                     Environment environment) {
+        return new TrieRoutePredicateHandlerMapping(webHandler, routeLocator, routeDefinitionLocator,
+                globalCorsProperties, environment);
+    }
 }
@@ -0,0 +1,166 @@
+package com.eureka.gateway.config;
+
+import com.eureka.gateway.util.PathRouteTrie;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.handler.predicate.MethodRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.Buildable;
+import org.springframework.cloud.gateway.route.builder.PredicateSpec;
+import org.springframework.cloud.gateway.route.builder.UriSpec;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR;
+
+/**
+ * Route lookup through a compiled path trie
+ * Path predicates are compiled into a PathRouteTrie with method buckets; only the
+ * candidate routes it returns (plus routes that are not indexed) have their
+ * predicates evaluated, in the original route order.
+ * A route is indexed only when its predicate is known to be an AND of its parts, since only
+ * then is its path pattern a necessary condition (the composed predicate objects do not
+ * expose OR / negation):
+ * - routes from RouteDefinitions (properties, YAML, discovery locator): their predicate
+ *   definitions are always ANDed by RouteDefinitionRouteLocator
+ * - Java DSL routes built with pathRoute(): the predicate is exactly the given path
+ * Other Java DSL routes (or(), negate(), custom predicates) are evaluated linearly.
+ * The trie is rebuilt lazily after every route refresh.
+ */
+@Log4j2
+public class TrieRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping
+        implements ApplicationListener<RefreshRoutesResultEvent> {
+
+    // Set by pathRoute() only, so it always describes the predicate that was actually built
+    private static final String PATH_ONLY_METADATA = TrieRoutePredicateHandlerMapping.class.getName() + ".path-only";
+
+    private final RouteLocator routeLocator;
+    private final RouteDefinitionLocator routeDefinitionLocator;
+    private volatile Mono<CompiledRoutes> compiledRoutes;
+
+    public TrieRoutePredicateHandlerMapping(FilteringWebHandler webHandler, RouteLocator routeLocator,
+                                            RouteDefinitionLocator routeDefinitionLocator,
+                                            GlobalCorsProperties globalCorsProperties, Environment environment) {
+        super(webHandler, routeLocator, globalCorsProperties, environment);
+        this.routeLocator = routeLocator;
+        this.routeDefinitionLocator = routeDefinitionLocator;
+        this.compiledRoutes = compile();
+    }
+
+    /**
+     * Java DSL route whose predicate is exactly the given path pattern; such routes are indexed.
+     * The spec handed to the route function cannot add predicates, only filters, uri and metadata.
+     */
+    public static Function<PredicateSpec, Buildable<Route>> pathRoute(String pattern,
+                                                                      Function<UriSpec, Route.AsyncBuilder> route) {
+        return spec -> route.apply(spec.path(pattern)).metadata(PATH_ONLY_METADATA, true);
+    }
+
+    @Override
+    public void onApplicationEvent(RefreshRoutesResultEvent event) {
+        log.debug("Routes refreshed, recompiling route trie");
+        this.compiledRoutes = compile();
+    }
+
+    @Override
+    protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+        return compiledRoutes.flatMap(compiled -> {
+            BitSet candidates = compiled.trie().candidates(
+                    exchange.getRequest().getPath().pathWithinApplication(),
+                    exchange.getRequest().getMethod());
+
+            return Flux.fromStream(candidates.stream().mapToObj(compiled.routes()::get))
+                    .concatMap(route -> Mono.just(route)
+                            .filterWhen(r -> {
+                                exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, r.getId());
+                                return r.getPredicate().apply(exchange);
+                            })
+                            .doOnError(e -> log.error("Error applying predicate for route: {}", route.getId(), e))
+                            .onErrorResume(e -> Mono.empty()))
+                    .next()
+                    .map(route -> {
+                        validateRoute(route, exchange);
+                        return route;
+                    });
+        });
+    }
+
+    private Mono<CompiledRoutes> compile() {
+        return Mono.zip(routeLocator.getRoutes().collectList(),
+                        routeDefinitionLocator.getRouteDefinitions().map(RouteDefinition::getId).collect(Collectors.toSet()))
+                .map(loaded -> compile(loaded.getT1(), loaded.getT2()))
+                .cache();
+    }
+
+    private CompiledRoutes compile(List<Route> routes, Set<String> definedRouteIds) {
+        PathRouteTrie trie = new PathRouteTrie();
+        int indexed = 0;
+
+        for (int i = 0; i < routes.size(); i++) {
+            Route route = routes.get(i);
+            List<String> patterns = new ArrayList<>();
+            Set<HttpMethod> methods = new HashSet<>();
+
+            if (isConjunction(route, definedRouteIds) && collectPathPredicates(route, patterns, methods)) {
+                for (String pattern : patterns) {
+                    trie.add(i, pattern, methods);
+                }
+                indexed++;
+            } else {
+                trie.addUnindexed(i);
+            }
+        }
+
+        log.info("Compiled route trie: {} routes, {} indexed by path, {} evaluated linearly",
+                routes.size(), indexed, routes.size() - indexed);
+        return new CompiledRoutes(List.copyOf(routes), trie);
+    }
+
+    private static boolean isConjunction(Route route, Set<String> definedRouteIds) {
+        return definedRouteIds.contains(route.getId())
+                || Boolean.TRUE.equals(route.getMetadata().get(PATH_ONLY_METADATA));
+    }
+
+    /**
+     * Collects path patterns and methods of a route; returns false when it has no path predicate
+     */
+    private static boolean collectPathPredicates(Route route, List<String> patterns, Set<HttpMethod> methods) {
+        try {
+            route.getPredicate().accept(hasConfig -> {
+                Object config = hasConfig.getConfig();
+                if (config instanceof PathRoutePredicateFactory.Config pathConfig) {
+                    patterns.addAll(pathConfig.getPatterns());
+                } else if (config instanceof MethodRoutePredicateFactory.Config methodConfig
+                        && methodConfig.getMethods() != null) {
+                    methods.addAll(Arrays.asList(methodConfig.getMethods()));
+                }
+            });
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+        return !patterns.isEmpty();
+    }
+
+    private record CompiledRoutes(List<Route> routes, PathRouteTrie trie) {
+    }
+}
@@ -0,0 +1,190 @@
+package com.eureka.gateway.filter;
+
+import lombok.extern.log4j.Log4j2;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+
+/**
+ * Request/Response body size limit filter for Gateway routes
+ * - Requests with a Content-Length above the limit are rejected with 413 before the body is read
+ * - Chunked bodies are counted buffer by buffer while streaming; nothing is aggregated
+ * - Buffers are released as soon as a limit is exceeded; for a response rejected on its
+ *   Content-Length the upstream connection is closed and the body is never read
+ */
+@Component
+@Log4j2
+public class BodySizeLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<BodySizeLimitGatewayFilterFactory.Config> {
+
+    public BodySizeLimitGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String path = request.getPath().value();
+
+            if (config.getMaxRequestSize() != null) {
+                long maxRequestBytes = config.getMaxRequestSize().toBytes();
+                long contentLength = request.getHeaders().getContentLength();
+                if (contentLength > maxRequestBytes) {
+                    log.warn("Request body too large for path: {} ({} > {} bytes)", path, contentLength, maxRequestBytes);
+                    return errorResponse(exchange, HttpStatus.PAYLOAD_TOO_LARGE,
+                            "Request body exceeds " + maxRequestBytes + " bytes");
+                }
+                request = new LimitedRequest(request, maxRequestBytes);
+            }
+
+            ServerHttpResponse response = exchange.getResponse();
+            if (config.getMaxResponseSize() != null) {
+                response = new LimitedResponse(exchange, config.getMaxResponseSize().toBytes(), path);
+            }
+
+            return chain.filter(exchange.mutate().request(request).response(response).build())
+                    .onErrorResume(BodySizeExceededException.class, e -> {
+                        log.warn("Body size limit exceeded for path: {} - {}", path, e.getMessage());
+                        if (exchange.getResponse().isCommitted()) {
+                            return Mono.error(e);
+                        }
+                        return errorResponse(exchange, e.getStatus(), e.getMessage());
+                    });
+        };
+    }
+
+    private static Flux<DataBuffer> limit(Flux<DataBuffer> body, AtomicLong total, long maxBytes, HttpStatus status) {
+        return body.map(buffer -> {
+            if (total.addAndGet(buffer.readableByteCount()) > maxBytes) {
+                DataBufferUtils.release(buffer);
+                throw new BodySizeExceededException(status, "Body exceeds " + maxBytes + " bytes");
+            }
+            return buffer;
+        });
+    }
+
+    private static Mono<Void> errorResponse(ServerWebExchange exchange, HttpStatus status, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        exchange.getAttributes().put(ResponseCompressionGatewayFilterFactory.SKIP_COMPRESSION_ATTR, true);
+        response.setStatusCode(status);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        String responseBody = "{\"error\":\"" + status.getReasonPhrase() + "\",\"message\":\"" + message + "\"}";
+        return response.writeWith(
+                Mono.just(response.bufferFactory().wrap(responseBody.getBytes(StandardCharsets.UTF_8)))
+        );
+    }
+
+    private static class LimitedRequest extends ServerHttpRequestDecorator {
+        private final long maxBytes;
+
+        LimitedRequest(ServerHttpRequest delegate, long maxBytes) {
+            super(delegate);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return Flux.defer(() -> limit(super.getBody(), new AtomicLong(), maxBytes, HttpStatus.PAYLOAD_TOO_LARGE));
+        }
+    }
+
+    private static class LimitedResponse extends ServerHttpResponseDecorator {
+        private final ServerWebExchange exchange;
+        private final long maxBytes;
+        private final String path;
+
+        LimitedResponse(ServerWebExchange exchange, long maxBytes, String path) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.maxBytes = maxBytes;
+            this.path = path;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long contentLength = getHeaders().getContentLength();
+            if (contentLength > maxBytes) {
+                // Close the upstream connection instead of reading the body: it is not returned
+                // to the pool with unread data, and the body subscription is cancelled right away
+                log.warn("Upstream response too large for path: {} ({} > {} bytes)", path, contentLength, maxBytes);
+                Connection connection = exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR);
+                if (connection != null) {
+                    connection.dispose();
+                }
+                return Flux.from(body)
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                        .take(0)
+                        .onErrorResume(e -> Mono.empty())
+                        .then(Mono.defer(() -> errorResponse(exchange, HttpStatus.BAD_GATEWAY,
+                                "Upstream response exceeds " + maxBytes + " bytes")));
+            }
+            return super.writeWith(limit(Flux.from(body), new AtomicLong(), maxBytes, HttpStatus.BAD_GATEWAY));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            AtomicLong total = new AtomicLong();
+            return super.writeAndFlushWith(Flux.from(body)
+                    .map(chunk -> limit(Flux.from(chunk), total, maxBytes, HttpStatus.BAD_GATEWAY)));
+        }
+    }
+
+    static class BodySizeExceededException extends RuntimeException {
+        private final HttpStatus status;
+
+        BodySizeExceededException(HttpStatus status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        HttpStatus getStatus() {
+            return status;
+        }
+    }
+
+    public static class Config {
+        private DataSize maxRequestSize;
+        private DataSize maxResponseSize;
+
+        public DataSize getMaxRequestSize() {
+            return maxRequestSize;
+        }
+
+        public Config setMaxRequestSize(DataSize maxRequestSize) {
+            this.maxRequestSize = maxRequestSize;
+            return this;
+        }
+
+        public DataSize getMaxResponseSize() {
+            return maxResponseSize;
+        }
+
+        public Config setMaxResponseSize(DataSize maxResponseSize) {
+            this.maxResponseSize = maxResponseSize;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.eureka.gateway.filter;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Request Deadline Filter for Gateway
+ * Stamps an absolute deadline (epoch millis) on every proxied request, derived from
+ * the route's response-timeout metadata. A deadline already sent by the caller is
+ * kept when it is earlier. Backends use it to drop work the client no longer waits for.
+ */
+@Component
+@Log4j2
+public class RequestDeadlineFilter implements GlobalFilter, Ordered {
+
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+
+    @Value("${gateway.deadline.default-timeout:30000}")
+    private long defaultTimeoutMillis;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long now = System.currentTimeMillis();
+        long deadline = now + routeTimeout(exchange.getAttribute(GATEWAY_ROUTE_ATTR));
+
+        String callerDeadline = exchange.getRequest().getHeaders().getFirst(DEADLINE_HEADER);
+        if (callerDeadline != null) {
+            try {
+                deadline = Math.min(deadline, Long.parseLong(callerDeadline.trim()));
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring malformed {} header: {}", DEADLINE_HEADER, callerDeadline);
+            }
+        }
+
+        if (deadline <= now) {
+            log.warn("Request deadline already expired for path: {}", exchange.getRequest().getPath());
+            return deadlineExceededResponse(exchange);
+        }
+
+        String deadlineValue = String.valueOf(deadline);
+        ServerWebExchange modifiedExchange = exchange.mutate()
+                .request(exchange.getRequest().mutate()
+                        .headers(headers -> headers.set(DEADLINE_HEADER, deadlineValue))
+                        .build())
+                .build();
+        return chain.filter(modifiedExchange);
+    }
+
+    private long routeTimeout(Route route) {
+        if (route != null && route.getMetadata().get(RESPONSE_TIMEOUT_ATTR) instanceof Number timeout
+                && timeout.longValue() > 0) {
+            return timeout.longValue();
+        }
+        return defaultTimeoutMillis;
+    }
+
+    private Mono<Void> deadlineExceededResponse(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        String responseBody = "{\"error\":\"Gateway Timeout\",\"message\":\"Request deadline exceeded\"}";
+        return exchange.getResponse().writeWith(
+                Mono.just(exchange.getResponse().bufferFactory().wrap(responseBody.getBytes(StandardCharsets.UTF_8)))
+        );
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+}
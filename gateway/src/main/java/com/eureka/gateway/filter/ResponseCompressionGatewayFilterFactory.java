@@ -0,0 +1,283 @@
+package com.eureka.gateway.filter;
+
+import com.eureka.gateway.util.DeflaterPool;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Response Compression Filter for Gateway routes
+ * - gzip is negotiated from the client's Accept-Encoding header
+ * - Only allow-listed content types at or above the minimum size are compressed; without a
+ *   Content-Length, buffers are held until the minimum size is reached (or the body ends)
+ * - Compression streams buffer by buffer with pooled Deflaters; the response is never aggregated
+ *   (a Deflater is returned to the pool only when its stream terminates, never on cancel)
+ * - Responses already encoded by the backend, and error bodies written by the gateway itself
+ *   (SKIP_COMPRESSION_ATTR), are passed through untouched
+ * - A strong ETag from the backend is weakened, since the gzipped bytes differ from the original
+ */
+@Component
+public class ResponseCompressionGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCompressionGatewayFilterFactory.Config> {
+
+    /**
+     * Exchange attribute set by filters that write their own response body (e.g. a 502 from
+     * BodySizeLimit); such bodies are small and gateway-generated, so they are never compressed
+     */
+    public static final String SKIP_COMPRESSION_ATTR = ResponseCompressionGatewayFilterFactory.class.getName() + ".skip";
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int CHUNK_SIZE = 8192;
+
+    private final DeflaterPool deflaterPool;
+
+    public ResponseCompressionGatewayFilterFactory(
+            @Value("${gateway.compression.level:6}") int level,
+            @Value("${gateway.compression.pool-size:64}") int poolSize) {
+        super(Config.class);
+        this.deflaterPool = new DeflaterPool(poolSize, level);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (HttpMethod.HEAD.equals(request.getMethod()) || !acceptsGzip(request.getHeaders())) {
+                return chain.filter(exchange);
+            }
+            ServerHttpResponse response = new CompressingResponse(exchange, config);
+            return chain.filter(exchange.mutate().response(response).build());
+        };
+    }
+
+    static boolean acceptsGzip(HttpHeaders headers) {
+        for (String value : headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String token : value.split(",")) {
+                String[] parts = token.trim().split(";");
+                String coding = parts[0].trim();
+                if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                    continue;
+                }
+                double quality = 1.0;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=")) {
+                        try {
+                            quality = Double.parseDouble(param.substring(2));
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                if (quality > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private class CompressingResponse extends ServerHttpResponseDecorator {
+        private final ServerWebExchange exchange;
+        private final Config config;
+
+        CompressingResponse(ServerWebExchange exchange, Config config) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.config = config;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!shouldCompress()) {
+                return super.writeWith(body);
+            }
+            if (getHeaders().getContentLength() >= 0) {
+                // Known length, already checked against the minimum size
+                startGzip();
+                return super.writeWith(compress(Flux.from(body)));
+            }
+
+            // Unknown length (chunked): hold buffers until the minimum size is reached or the body
+            // ends, then decide. Headers are still uncommitted until the first buffer is written.
+            long minSize = config.getMinResponseSize().toBytes();
+            return super.writeWith(Flux.defer(() -> {
+                long[] seen = {0};
+                return Flux.from(body)
+                        .bufferUntil(buffer -> (seen[0] += buffer.readableByteCount()) >= minSize)
+                        .switchOnFirst((first, batches) -> {
+                            Flux<DataBuffer> buffers = batches.concatMapIterable(Function.identity());
+                            if (first.hasValue() && seen[0] >= minSize) {
+                                startGzip();
+                                return compress(buffers);
+                            }
+                            return buffers;
+                        })
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+            }));
+        }
+
+        private void startGzip() {
+            HttpHeaders headers = getHeaders();
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            headers.addIfAbsent(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                headers.setETag("W/" + etag);
+            }
+        }
+
+        /**
+         * The Deflater goes back to the pool only on complete or error, which are signalled
+         * after the last deflate() has returned. On cancel a chunk may still be deflating on
+         * another thread, so the Deflater is dropped and left to its cleaner instead.
+         */
+        private Flux<DataBuffer> compress(Flux<DataBuffer> body) {
+            DataBufferFactory factory = bufferFactory();
+            return Flux.usingWhen(
+                    Mono.fromSupplier(deflaterPool::borrow),
+                    deflater -> gzip(body, deflater, factory),
+                    deflater -> Mono.fromRunnable(() -> deflaterPool.release(deflater)),
+                    (deflater, error) -> Mono.fromRunnable(() -> deflaterPool.release(deflater)),
+                    deflater -> Mono.empty());
+        }
+
+        private boolean shouldCompress() {
+            if (exchange.getAttributes().containsKey(SKIP_COMPRESSION_ATTR)) {
+                return false;
+            }
+            HttpHeaders headers = getHeaders();
+            HttpStatus status = getStatusCode() != null ? HttpStatus.resolve(getStatusCode().value()) : null;
+            if (status == HttpStatus.NO_CONTENT || status == HttpStatus.NOT_MODIFIED
+                    || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                return false;
+            }
+            long contentLength = headers.getContentLength();
+            if (contentLength >= 0 && contentLength < config.getMinResponseSize().toBytes()) {
+                return false;
+            }
+            MediaType contentType = headers.getContentType();
+            if (contentType == null) {
+                return false;
+            }
+            for (MediaType allowed : config.getMediaTypes()) {
+                if (allowed.isCompatibleWith(contentType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static Flux<DataBuffer> gzip(Flux<DataBuffer> body, Deflater deflater, DataBufferFactory factory) {
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[CHUNK_SIZE];
+
+        Flux<DataBuffer> compressed = body
+                .map(buffer -> {
+                    DataBuffer out = factory.allocateBuffer(buffer.readableByteCount() / 2 + 64);
+                    try (DataBuffer.ByteBufferIterator input = buffer.readableByteBuffers()) {
+                        while (input.hasNext()) {
+                            ByteBuffer byteBuffer = input.next();
+                            crc.update(byteBuffer.duplicate());
+                            deflater.setInput(byteBuffer);
+                            while (!deflater.needsInput()) {
+                                write(out, chunk, deflater.deflate(chunk, 0, chunk.length, Deflater.NO_FLUSH));
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        DataBufferUtils.release(out);
+                        throw e;
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                    return out;
+                })
+                .filter(out -> {
+                    if (out.readableByteCount() == 0) {
+                        DataBufferUtils.release(out);
+                        return false;
+                    }
+                    return true;
+                });
+
+        Mono<DataBuffer> trailer = Mono.fromCallable(() -> {
+            DataBuffer out = factory.allocateBuffer(CHUNK_SIZE);
+            deflater.finish();
+            while (!deflater.finished()) {
+                write(out, chunk, deflater.deflate(chunk, 0, chunk.length));
+            }
+            writeIntLe(out, (int) crc.getValue());
+            writeIntLe(out, (int) deflater.getBytesRead());
+            return out;
+        });
+
+        return Flux.concat(
+                Mono.fromCallable(() -> factory.wrap(GZIP_HEADER.clone())),
+                compressed,
+                trailer);
+    }
+
+    private static void write(DataBuffer out, byte[] chunk, int length) {
+        if (length > 0) {
+            out.ensureWritable(length);
+            out.write(chunk, 0, length);
+        }
+    }
+
+    private static void writeIntLe(DataBuffer out, int value) {
+        out.ensureWritable(4);
+        out.write((byte) value);
+        out.write((byte) (value >> 8));
+        out.write((byte) (value >> 16));
+        out.write((byte) (value >> 24));
+    }
+
+    public static class Config {
+        private DataSize minResponseSize = DataSize.ofKilobytes(1);
+        private List<MediaType> mediaTypes = new ArrayList<>(List.of(
+                MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN, MediaType.TEXT_HTML));
+
+        public DataSize getMinResponseSize() {
+            return minResponseSize;
+        }
+
+        public Config setMinResponseSize(DataSize minResponseSize) {
+            this.minResponseSize = minResponseSize;
+            return this;
+        }
+
+        public List<MediaType> getMediaTypes() {
+            return mediaTypes;
+        }
+
+        public Config setMediaTypes(List<MediaType> mediaTypes) {
+            this.mediaTypes = mediaTypes;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.eureka.gateway.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Bounded pool of raw (nowrap) Deflater instances
+ * Each Deflater owns a native zlib stream; reusing them avoids allocating and
+ * finalizing native memory for every compressed response.
+ * When the pool is empty a new Deflater is created; when it is full a returned
+ * Deflater is ended instead of pooled.
+ * Only release a Deflater that no other thread can still be using; one abandoned
+ * mid-stream (cancelled response) must not be released and is freed by its cleaner.
+ */
+public class DeflaterPool {
+
+    private final BlockingQueue<Deflater> pool;
+    private final int level;
+
+    public DeflaterPool(int capacity, int level) {
+        this.pool = new ArrayBlockingQueue<>(capacity);
+        this.level = level;
+    }
+
+    public Deflater borrow() {
+        Deflater deflater = pool.poll();
+        return deflater != null ? deflater : new Deflater(level, true);
+    }
+
+    public void release(Deflater deflater) {
+        deflater.reset();
+        if (!pool.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    public int idle() {
+        return pool.size();
+    }
+}
@@ -1,44 +1,73 @@
 package com.eureka.gateway.util;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import jakarta.annotation.PostConstruct;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.security.*;
+import java.security.cert.Certificate;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
 import java.util.Base64;
 
+/**
+ * Gateway RSA key pair, persisted in a PKCS#12 keystore
+ * Keys are loaded (or generated) on a background thread so startup is not blocked;
+ * until then areKeysAvailable() is false and the key getters return null.
+ * Keys from the legacy DER files are migrated into the keystore on first start.
+ * The private key is stored with a self-signed certificate that carries the public key.
+ */
 @Component
 public class GatewayKeyGenerator {
     private static final String KEYS_DIR = "gateway-keys";
     private static final String PRIVATE_KEY_FILE = "gateway-private.key";
     private static final String PUBLIC_KEY_FILE = "gateway-public.key";
-    
-    private PrivateKey privateKey;
-    private PublicKey publicKey;
+    private static final String KEY_STORE_FILE = "gateway-keystore.p12";
+    private static final String KEY_ALIAS = "gateway-key";
+    private static final String KEY_STORE_PASSWORD = "changeit";
+    private static final Duration CERTIFICATE_VALIDITY = Duration.ofDays(3650);
+
+    @Value("${gateway.keystore.password:" + KEY_STORE_PASSWORD + "}")
+    private String keyStorePassword;
+
+    private volatile KeyPair keyPair;
 
     @PostConstruct
     public void initializeKeys() {
+        Thread loader = new Thread(this::loadOrGenerateKeys, "gateway-key-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void loadOrGenerateKeys() {
+        long start = System.nanoTime();
         try {
             // Create keys directory if it doesn't exist
             createKeysDirectory();
-            
+
             // Try to load existing keys
-            if (loadExistingKeys()) {
-                System.out.println("Gateway: کلیدهای موجود بارگذاری شدند");
+            KeyPair loaded = loadFromKeyStore();
+            if (loaded != null) {
+                System.out.println("Gateway: کلیدهای موجود از keystore بارگذاری شدند");
             } else {
-                // Generate new keys
-                generateNewKeys();
-                saveKeys();
-                System.out.println("Gateway: کلیدهای جدید تولید و ذخیره شدند");
+                loaded = loadLegacyKeys();
+                if (loaded == null) {
+                    // Generate new keys
+                    loaded = generateNewKeys();
+                }
+                saveKeys(loaded);
             }
-            
+            keyPair = loaded;
+            System.out.println("Gateway: کلیدها آماده شدند (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+
         } catch (Exception e) {
             System.err.println("Gateway: خطا در مقداردهی اولیه کلیدها: " + e.getMessage());
         }
@@ -52,70 +81,95 @@ public class GatewayKeyGenerator {
         }
     }
 
-    private boolean loadExistingKeys() {
+    private KeyPair loadFromKeyStore() {
+        Path keyStorePath = Paths.get(KEYS_DIR, KEY_STORE_FILE);
+        if (!Files.exists(keyStorePath)) {
+            return null;
+        }
+        try {
+            char[] password = keyStorePassword.toCharArray();
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            try (InputStream in = Files.newInputStream(keyStorePath)) {
+                keyStore.load(in, password);
+            }
+            Key privateKey = keyStore.getKey(KEY_ALIAS, password);
+            Certificate certificate = keyStore.getCertificate(KEY_ALIAS);
+            if (privateKey instanceof PrivateKey && certificate != null) {
+                return new KeyPair(certificate.getPublicKey(), (PrivateKey) privateKey);
+            }
+        } catch (Exception e) {
+            System.err.println("Gateway: خطا در بارگذاری keystore: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private KeyPair loadLegacyKeys() {
         try {
             File privateKeyFile = new File(KEYS_DIR, PRIVATE_KEY_FILE);
             File publicKeyFile = new File(KEYS_DIR, PUBLIC_KEY_FILE);
-            
+
             if (privateKeyFile.exists() && publicKeyFile.exists()) {
                 // Load private key
                 byte[] privateKeyBytes = Files.readAllBytes(privateKeyFile.toPath());
                 PKCS8EncodedKeySpec privateKeySpec = new PKCS8EncodedKeySpec(privateKeyBytes);
                 KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-                privateKey = keyFactory.generatePrivate(privateKeySpec);
-                
+                PrivateKey privateKey = keyFactory.generatePrivate(privateKeySpec);
+
                 // Load public key
                 byte[] publicKeyBytes = Files.readAllBytes(publicKeyFile.toPath());
                 X509EncodedKeySpec publicKeySpec = new X509EncodedKeySpec(publicKeyBytes);
-                publicKey = keyFactory.generatePublic(publicKeySpec);
-                
-                System.out.println("Gateway: کلیدهای موجود با موفقیت بارگذاری شدند");
-                return true;
+                PublicKey publicKey = keyFactory.generatePublic(publicKeySpec);
+
+                System.out.println("Gateway: کلیدهای قدیمی بارگذاری شدند و به keystore منتقل می‌شوند");
+                return new KeyPair(publicKey, privateKey);
             }
-            
+
         } catch (Exception e) {
             System.err.println("Gateway: خطا در بارگذاری کلیدهای موجود: " + e.getMessage());
         }
-        
-        return false;
+
+        return null;
     }
 
-    private void generateNewKeys() throws Exception {
+    private KeyPair generateNewKeys() throws Exception {
         KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
         keyPairGenerator.initialize(2048);
-        KeyPair keyPair = keyPairGenerator.generateKeyPair();
-        
-        privateKey = keyPair.getPrivate();
-        publicKey = keyPair.getPublic();
-        
+        KeyPair generated = keyPairGenerator.generateKeyPair();
+
         System.out.println("Gateway: کلیدهای جدید تولید شدند");
+        return generated;
     }
 
-    private void saveKeys() throws IOException {
-        // Save private key
-        File privateKeyFile = new File(KEYS_DIR, PRIVATE_KEY_FILE);
-        try (FileOutputStream fos = new FileOutputStream(privateKeyFile)) {
-            fos.write(privateKey.getEncoded());
-        }
-        
-        // Save public key
-        File publicKeyFile = new File(KEYS_DIR, PUBLIC_KEY_FILE);
-        try (FileOutputStream fos = new FileOutputStream(publicKeyFile)) {
-            fos.write(publicKey.getEncoded());
+    private void saveKeys(KeyPair keys) throws Exception {
+        char[] password = keyStorePassword.toCharArray();
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        keyStore.setKeyEntry(KEY_ALIAS, keys.getPrivate(), password,
+                new Certificate[]{SelfSignedCertificate.create(keys, "api-gateway", CERTIFICATE_VALIDITY)});
+
+        // Write to a temporary file first so a crash never leaves a truncated keystore behind
+        Path temp = Files.createTempFile(Paths.get(KEYS_DIR), KEY_STORE_FILE, ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            keyStore.store(out, password);
         }
-        
-        System.out.println("Gateway: کلیدها در فایل‌ها ذخیره شدند");
+        Files.move(temp, Paths.get(KEYS_DIR, KEY_STORE_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        System.out.println("Gateway: کلیدها در keystore ذخیره شدند");
     }
 
     public PrivateKey getPrivateKey() {
-        return privateKey;
+        KeyPair current = keyPair;
+        return current != null ? current.getPrivate() : null;
     }
 
     public PublicKey getPublicKey() {
-        return publicKey;
+        KeyPair current = keyPair;
+        return current != null ? current.getPublic() : null;
     }
 
     public String getPublicKeyAsString() {
+        PublicKey publicKey = getPublicKey();
         if (publicKey != null) {
             return Base64.getEncoder().encodeToString(publicKey.getEncoded());
         }
@@ -123,6 +177,7 @@ public class GatewayKeyGenerator {
     }
 
     public String getPrivateKeyAsString() {
+        PrivateKey privateKey = getPrivateKey();
         if (privateKey != null) {
             return Base64.getEncoder().encodeToString(privateKey.getEncoded());
         }
@@ -130,16 +185,18 @@ public class GatewayKeyGenerator {
     }
 
     public boolean areKeysAvailable() {
-        return privateKey != null && publicKey != null;
+        return keyPair != null;
     }
 
-    public void regenerateKeys() {
+    public synchronized void regenerateKeys() {
         try {
-            generateNewKeys();
-            saveKeys();
+            createKeysDirectory();
+            KeyPair generated = generateNewKeys();
+            saveKeys(generated);
+            keyPair = generated;
             System.out.println("Gateway: کلیدها مجدداً تولید و ذخیره شدند");
         } catch (Exception e) {
             System.err.println("Gateway: خطا در تولید مجدد کلیدها: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+}
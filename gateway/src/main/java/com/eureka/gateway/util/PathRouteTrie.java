@@ -0,0 +1,130 @@
+package com.eureka.gateway.util;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Segment trie over route path patterns (/sso/**, /service1/**, /api/gateway/health ...)
+ * Routes are stored by their index in the route list, so candidates come back
+ * as a BitSet that iterates in the original route order.
+ *
+ * The trie only narrows the candidate set: a returned route may still fail its
+ * full predicate (e.g. a {var:regex} segment), but a route that is not returned
+ * can never match the path.
+ */
+public class PathRouteTrie {
+
+    private final Node root = new Node();
+    private final BitSet unindexed = new BitSet();
+    private int size;
+
+    /**
+     * Index a route under one path pattern, optionally restricted to some HTTP methods
+     */
+    public void add(int routeIndex, String pattern, Set<HttpMethod> methods) {
+        Node node = root;
+        for (String segment : pattern.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.equals("**") || segment.startsWith("{*")) {
+                node.rest.add(routeIndex, methods);
+                size = Math.max(size, routeIndex + 1);
+                return;
+            }
+            if (isWildcard(segment)) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.literals.computeIfAbsent(segment, s -> new Node());
+            }
+        }
+        node.terminal.add(routeIndex, methods);
+        size = Math.max(size, routeIndex + 1);
+    }
+
+    /**
+     * Route without a path predicate - it is a candidate for every request
+     */
+    public void addUnindexed(int routeIndex) {
+        unindexed.set(routeIndex);
+        size = Math.max(size, routeIndex + 1);
+    }
+
+    public BitSet candidates(PathContainer path, HttpMethod method) {
+        List<PathContainer.Element> elements = path.elements();
+        String[] segments = new String[elements.size()];
+        int count = 0;
+        for (PathContainer.Element element : elements) {
+            if (element instanceof PathContainer.PathSegment segment && !segment.valueToMatch().isEmpty()) {
+                segments[count++] = segment.valueToMatch();
+            }
+        }
+
+        BitSet result = new BitSet(size);
+        result.or(unindexed);
+        collect(root, segments, count, 0, method, result);
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void collect(Node node, String[] segments, int count, int position, HttpMethod method, BitSet result) {
+        node.rest.collect(method, result);
+        if (position == count) {
+            node.terminal.collect(method, result);
+            return;
+        }
+        Node literal = node.literals.get(segments[position]);
+        if (literal != null) {
+            collect(literal, segments, count, position + 1, method, result);
+        }
+        if (node.wildcard != null) {
+            collect(node.wildcard, segments, count, position + 1, method, result);
+        }
+    }
+
+    private static boolean isWildcard(String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0;
+    }
+
+    private static class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final MethodBuckets terminal = new MethodBuckets();
+        private final MethodBuckets rest = new MethodBuckets();
+        private Node wildcard;
+    }
+
+    private static class MethodBuckets {
+        private final BitSet anyMethod = new BitSet();
+        private final Map<HttpMethod, BitSet> byMethod = new HashMap<>();
+
+        void add(int routeIndex, Set<HttpMethod> methods) {
+            if (methods == null || methods.isEmpty()) {
+                anyMethod.set(routeIndex);
+                return;
+            }
+            for (HttpMethod method : methods) {
+                byMethod.computeIfAbsent(method, m -> new BitSet()).set(routeIndex);
+            }
+        }
+
+        void collect(HttpMethod method, BitSet result) {
+            result.or(anyMethod);
+            BitSet forMethod = byMethod.get(method);
+            if (forMethod != null) {
+                result.or(forMethod);
+            }
+        }
+    }
+}
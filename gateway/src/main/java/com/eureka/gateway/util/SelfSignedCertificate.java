@@ -0,0 +1,104 @@
+package com.eureka.gateway.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Minimal self-signed X.509 certificate for an RSA key pair
+ * A PKCS#12 keystore can only hold a private key together with a certificate chain;
+ * the JDK has no public API to create one, so the DER structure is written here.
+ * The certificate only carries the public key - it is never used for TLS.
+ */
+public final class SelfSignedCertificate {
+
+    // sha256WithRSAEncryption (1.2.840.113549.1.1.11) with NULL parameters
+    private static final byte[] SHA256_WITH_RSA = {
+            0x30, 0x0d, 0x06, 0x09, 0x2a, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xf7, 0x0d, 0x01, 0x01, 0x0b, 0x05, 0x00};
+    // commonName (2.5.4.3)
+    private static final byte[] COMMON_NAME = {0x06, 0x03, 0x55, 0x04, 0x03};
+    private static final DateTimeFormatter UTC_TIME = DateTimeFormatter.ofPattern("yyMMddHHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter GENERALIZED_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private SelfSignedCertificate() {
+    }
+
+    public static X509Certificate create(KeyPair keyPair, String commonName, Duration validity)
+            throws GeneralSecurityException {
+        Instant notBefore = Instant.now();
+        byte[] name = sequence(set(sequence(COMMON_NAME, tlv(0x0c, commonName.getBytes(StandardCharsets.UTF_8)))));
+
+        byte[] tbsCertificate = sequence(
+                tlv(0xa0, tlv(0x02, new byte[]{2})),
+                tlv(0x02, new BigInteger(63, new SecureRandom()).add(BigInteger.ONE).toByteArray()),
+                SHA256_WITH_RSA,
+                name,
+                sequence(time(notBefore), time(notBefore.plus(validity))),
+                name,
+                keyPair.getPublic().getEncoded());
+
+        Signature signer = Signature.getInstance("SHA256withRSA");
+        signer.initSign(keyPair.getPrivate());
+        signer.update(tbsCertificate);
+        byte[] signature = signer.sign();
+
+        byte[] bitString = new byte[signature.length + 1];
+        System.arraycopy(signature, 0, bitString, 1, signature.length);
+        byte[] certificate = sequence(tbsCertificate, SHA256_WITH_RSA, tlv(0x03, bitString));
+
+        return (X509Certificate) CertificateFactory.getInstance("X.509")
+                .generateCertificate(new ByteArrayInputStream(certificate));
+    }
+
+    private static byte[] time(Instant instant) {
+        // RFC 5280: UTCTime through 2049, GeneralizedTime from 2050
+        if (instant.atZone(ZoneOffset.UTC).getYear() < 2050) {
+            return tlv(0x17, UTC_TIME.format(instant).getBytes(StandardCharsets.US_ASCII));
+        }
+        return tlv(0x18, GENERALIZED_TIME.format(instant).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] sequence(byte[]... elements) {
+        return tlv(0x30, concat(elements));
+    }
+
+    private static byte[] set(byte[]... elements) {
+        return tlv(0x31, concat(elements));
+    }
+
+    private static byte[] concat(byte[]... elements) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] element : elements) {
+            out.writeBytes(element);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] tlv(int tag, byte[] value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(value.length + 6);
+        out.write(tag);
+        int length = value.length;
+        if (length < 0x80) {
+            out.write(length);
+        } else {
+            int bytes = (32 - Integer.numberOfLeadingZeros(length) + 7) / 8;
+            out.write(0x80 | bytes);
+            for (int i = bytes - 1; i >= 0; i--) {
+                out.write(length >>> (8 * i));
+            }
+        }
+        out.writeBytes(value);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,111 @@
+package com.eureka.gateway.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+
+import java.util.BitSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathRouteTrieTest {
+
+	@Test
+	void literalPatternMatchesOnlyExactPath() {
+		PathRouteTrie trie = new PathRouteTrie();
+		trie.add(0, "/api/gateway/health", Set.of());
+
+		assertThat(candidates(trie, "/api/gateway/health", HttpMethod.GET)).isEqualTo(bits(0));
+		assertThat(candidates(trie, "/api/gateway/health/", HttpMethod.GET)).isEqualTo(bits(0));
+		assertThat(candidates(trie, "/api/gateway", HttpMethod.GET)).isEmpty();
+		assertThat(candidates(trie, "/api/gateway/health/extra", HttpMethod.GET)).isEmpty();
+		assertThat(candidates(trie, "/api/gateway/status", HttpMethod.GET)).isEmpty();
+	}
+
+	@Test
+	void doubleWildcardMatchesPrefixAndEverythingBelowIt() {
+		PathRouteTrie trie = new PathRouteTrie();
+		trie.add(0, "/sso/**", Set.of());
+		trie.add(1, "/service1/{*rest}", Set.of());
+
+		assertThat(candidates(trie, "/sso", HttpMethod.GET)).isEqualTo(bits(0));
+		assertThat(candidates(trie, "/sso/api/auth/login", HttpMethod.POST)).isEqualTo(bits(0));
+		assertThat(candidates(trie, "/service1/test/a/b", HttpMethod.GET)).isEqualTo(bits(1));
+		assertThat(candidates(trie, "/ssox/api", HttpMethod.GET)).isEmpty();
+	}
+
+	@Test
+	void singleSegmentWildcardsMatchExactlyOneSegment() {
+		PathRouteTrie trie = new PathRouteTrie();
+		trie.add(0, "/acl/{id}/roles", Set.of());
+		trie.add(1, "/acl/*.json", Set.of());
+
+		assertThat(candidates(trie, "/acl/42/roles", HttpMethod.GET)).isEqualTo(bits(0));
+		assertThat(candidates(trie, "/acl/manifest.json", HttpMethod.GET)).isEqualTo(bits(1));
+		assertThat(candidates(trie, "/acl/42/groups", HttpMethod.GET)).isEmpty();
+		assertThat(candidates(trie, "/acl/1/2/roles", HttpMethod.GET)).isEmpty();
+	}
+
+	@Test
+	void methodRestrictionFiltersCandidates() {
+		PathRouteTrie trie = new PathRouteTrie();
+		trie.add(0, "/acl/**", Set.of(HttpMethod.GET, HttpMethod.HEAD));
+		trie.add(1, "/acl/**", Set.of(HttpMethod.POST));
+		trie.add(2, "/acl/**", Set.of());
+
+		assertThat(candidates(trie, "/acl/api", HttpMethod.GET)).isEqualTo(bits(0, 2));
+		assertThat(candidates(trie, "/acl/api", HttpMethod.POST)).isEqualTo(bits(1, 2));
+		assertThat(candidates(trie, "/acl/api", HttpMethod.DELETE)).isEqualTo(bits(2));
+	}
+
+	@Test
+	void candidatesIterateInRouteOrderRegardlessOfSpecificity() {
+		PathRouteTrie trie = new PathRouteTrie();
+		trie.add(0, "/**", Set.of());
+		trie.add(1, "/sso/**", Set.of());
+		trie.add(2, "/sso/api/auth/login", Set.of());
+		trie.add(3, "/sso/{section}/auth/login", Set.of());
+
+		BitSet result = candidates(trie, "/sso/api/auth/login", HttpMethod.POST);
+
+		// Precedence stays with the route list: the first set bit is the first declared route
+		assertThat(result).isEqualTo(bits(0, 1, 2, 3));
+		assertThat(result.nextSetBit(0)).isZero();
+	}
+
+	@Test
+	void unindexedRoutesAreAlwaysCandidates() {
+		PathRouteTrie trie = new PathRouteTrie();
+		trie.add(0, "/sso/**", Set.of());
+		trie.addUnindexed(1);
+		trie.add(2, "/service1/**", Set.of());
+
+		assertThat(candidates(trie, "/sso/api", HttpMethod.GET)).isEqualTo(bits(0, 1));
+		assertThat(candidates(trie, "/unknown", HttpMethod.GET)).isEqualTo(bits(1));
+		assertThat(trie.size()).isEqualTo(3);
+	}
+
+	@Test
+	void routeWithSeveralPatternsIsReturnedOnce() {
+		PathRouteTrie trie = new PathRouteTrie();
+		trie.add(0, "/sso/**", Set.of());
+		trie.add(0, "/auth/**", Set.of());
+
+		assertThat(candidates(trie, "/sso/x", HttpMethod.GET)).isEqualTo(bits(0));
+		assertThat(candidates(trie, "/auth/x", HttpMethod.GET)).isEqualTo(bits(0));
+		assertThat(candidates(trie, "/other", HttpMethod.GET)).isEmpty();
+	}
+
+	private static BitSet candidates(PathRouteTrie trie, String path, HttpMethod method) {
+		return trie.candidates(PathContainer.parsePath(path), method);
+	}
+
+	private static BitSet bits(int... indexes) {
+		BitSet bits = new BitSet();
+		for (int index : indexes) {
+			bits.set(index);
+		}
+		return bits;
+	}
+}
@@ -2,6 +2,7 @@ package com.eureka.service1.aspect;
 
 import com.eureka.service1.service.AclService;
 import com.eureka.service1.util.ApiPathExtractor;
+import com.eureka.service1.util.RequestDeadline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -70,6 +71,10 @@ public class AclAspect {
 
             // Check permission with actual API path and HTTP method
             boolean hasPermission = aclService.hasPermission(authenticatedUser, resource, action, cleanApiPath, httpMethod);
+            if (RequestDeadline.isExpired()) {
+                log.warn("Request deadline exceeded during ACL check for user {}", authenticatedUser);
+                return createErrorResponse("Request deadline exceeded", HttpStatus.GATEWAY_TIMEOUT);
+            }
             if (!hasPermission) {
                 log.warn("User {} does not have permission for {}:{}", authenticatedUser, resource, action);
                 return createErrorResponse("Access denied", HttpStatus.FORBIDDEN);
@@ -0,0 +1,61 @@
+package com.eureka.service1.config;
+
+import com.eureka.service1.util.RequestDeadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Request Deadline Filter
+ * Rejects requests whose gateway deadline has already passed and exposes the
+ * deadline to outbound calls through RequestDeadline.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Log4j2
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(RequestDeadline.DEADLINE_HEADER);
+        if (header == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long deadline;
+        try {
+            deadline = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed {} header: {}", RequestDeadline.DEADLINE_HEADER, header);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (deadline <= System.currentTimeMillis()) {
+            log.warn("Dropping request with expired deadline: {} {}", request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Gateway Timeout\",\"message\":\"Request deadline exceeded\"}");
+            return;
+        }
+
+        RequestDeadline.set(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+}
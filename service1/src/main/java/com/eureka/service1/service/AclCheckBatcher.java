@@ -0,0 +1,193 @@
+package com.eureka.service1.service;
+
+import com.eureka.service1.util.RequestDeadline;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces concurrent ACL permission checks into micro-batches
+ * Callers enqueue a check and get a future; a dispatcher thread takes whatever is queued
+ * (waiting at most window-ms for more, up to max-size), sends one POST to /check/batch and
+ * completes every caller's future from the response. Identical checks in a batch are sent once.
+ * Any failure denies the whole batch.
+ */
+@Component
+@RequiredArgsConstructor
+@Log4j2
+public class AclCheckBatcher {
+
+    private static final String ACL_BATCH_URL = "http://localhost:8083/acl/api/acl/check/batch";
+    private static final Duration ACL_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final BlockingQueue<PendingCheck> queue = new LinkedBlockingQueue<>();
+
+    @Value("${acl.check.batch.max-size:100}")
+    private int maxBatchSize;
+
+    @Value("${acl.check.batch.window-ms:2}")
+    private long batchWindowMs;
+
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "acl-check-batcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        dispatcher.interrupt();
+        PendingCheck pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().complete(false);
+        }
+    }
+
+    /**
+     * Queues a check; the future completes with the decision, or false on any failure
+     */
+    public CompletableFuture<Boolean> check(String username, String projectName, String apiPath,
+                                            String httpMethod, String resource, long deadlineMillis) {
+        PendingCheck pending = new PendingCheck(new CheckKey(username, projectName, apiPath, httpMethod, resource),
+                deadlineMillis, new CompletableFuture<>());
+        if (!running) {
+            pending.result().complete(false);
+        } else {
+            queue.add(pending);
+        }
+        return pending.result();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                List<PendingCheck> batch = new ArrayList<>(maxBatchSize);
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - batch.size());
+
+                // Give concurrent callers a short window to join the batch
+                long windowEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWindowMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = windowEnd - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingCheck next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("ACL check batcher error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void send(List<PendingCheck> batch) {
+        // Identical checks in the batch share one request entry
+        Map<CheckKey, List<PendingCheck>> byKey = new LinkedHashMap<>();
+        long deadline = 0;
+        for (PendingCheck pending : batch) {
+            byKey.computeIfAbsent(pending.key(), key -> new ArrayList<>()).add(pending);
+            deadline = Math.max(deadline, pending.deadlineMillis());
+        }
+        List<CheckKey> keys = new ArrayList<>(byKey.keySet());
+
+        long timeoutMillis = Math.min(ACL_TIMEOUT.toMillis(), deadline - System.currentTimeMillis());
+        if (timeoutMillis <= 0) {
+            log.warn("Request deadline exceeded before ACL batch of {} checks was sent", batch.size());
+            completeAll(batch, false);
+            return;
+        }
+
+        try {
+            String requestBody = objectMapper.writeValueAsString(Map.of("checks", keys));
+            HttpRequest httpRequest = HttpRequest.newBuilder()
+                    .uri(URI.create(ACL_BATCH_URL))
+                    .header("Content-Type", "application/json")
+                    .header(RequestDeadline.DEADLINE_HEADER, String.valueOf(deadline))
+                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                    .timeout(Duration.ofMillis(timeoutMillis))
+                    .build();
+
+            log.debug("Sending ACL batch: {} checks ({} distinct)", batch.size(), keys.size());
+            httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            log.error("Error sending ACL batch: {}", error.getMessage());
+                            completeAll(batch, false);
+                        } else {
+                            complete(keys, byKey, response);
+                        }
+                    });
+        } catch (Exception e) {
+            log.error("Error preparing ACL batch: {}", e.getMessage());
+            completeAll(batch, false);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void complete(List<CheckKey> keys, Map<CheckKey, List<PendingCheck>> byKey, HttpResponse<String> response) {
+        try {
+            if (response.statusCode() != 200) {
+                log.warn("ACL service returned status: {} for batch", response.statusCode());
+                byKey.values().forEach(pending -> completeAll(pending, false));
+                return;
+            }
+            Map<String, Object> responseBody = objectMapper.readValue(response.body(), Map.class);
+            List<Boolean> results = (List<Boolean>) responseBody.get("results");
+            for (int i = 0; i < keys.size(); i++) {
+                Boolean granted = results != null && i < results.size() ? results.get(i) : null;
+                completeAll(byKey.get(keys.get(i)), granted != null && granted);
+            }
+        } catch (Exception e) {
+            log.error("Error reading ACL batch response: {}", e.getMessage());
+            byKey.values().forEach(pending -> completeAll(pending, false));
+        }
+    }
+
+    private static void completeAll(List<PendingCheck> pending, boolean granted) {
+        pending.forEach(check -> check.result().complete(granted));
+    }
+
+    /**
+     * One check as sent to ACL (field names match the /check request body)
+     */
+    record CheckKey(String username, String projectName, String apiPath, String httpMethod, String resource) {
+    }
+
+    private record PendingCheck(CheckKey key, long deadlineMillis, CompletableFuture<Boolean> result) {
+    }
+}
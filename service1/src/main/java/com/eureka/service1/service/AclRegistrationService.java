@@ -10,7 +10,9 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -27,13 +29,17 @@ public class AclRegistrationService {
 
     /**
      * Register Service1 methods with ACL service
+     * All methods are sent as one manifest; ACL skips it when nothing changed
      */
     public boolean registerService1Methods() {
         try {
             log.info("Registering Service1 methods with ACL service");
             
-            // Register hello method
-            boolean result = registerMethod("service1", "hello", "GET", "Hello endpoint access");
+            List<Map<String, Object>> apis = new ArrayList<>();
+            // hello method
+            apis.add(apiEntry("service1", "hello", "GET", "Hello endpoint access"));
+            
+            boolean result = registerManifest("service1", apis);
             
             if (result) {
                 log.info("Service1 methods registered successfully");
@@ -49,29 +55,27 @@ public class AclRegistrationService {
         }
     }
 
+    private Map<String, Object> apiEntry(String service, String method, String httpMethod, String description) {
+        Map<String, Object> api = new HashMap<>();
+        api.put("name", service.toUpperCase() + "_" + method.toUpperCase() + "_ACCESS");
+        api.put("apiPath", "/" + method);
+        api.put("httpMethod", httpMethod);
+        api.put("description", description);
+        api.put("persianName", "دسترسی به " + method);
+        api.put("isCritical", false);
+        api.put("isPublic", false);
+        return api;
+    }
+
     /**
-     * Register a method with ACL service
+     * Register the full API manifest of a project with ACL service
      */
-    private boolean registerMethod(String service, String method, String httpMethod, String description) {
+    private boolean registerManifest(String projectName, List<Map<String, Object>> apis) {
         try {
-            String permissionName = service.toUpperCase() + "_" + method.toUpperCase() + "_ACCESS";
-            String apiPath = "/" + method;
-            String persianName = "دسترسی به " + method;
-            
-            Map<String, Object> request = new HashMap<>();
-            request.put("name", permissionName);
-            request.put("projectName", service);
-            request.put("apiPath", apiPath);
-            request.put("httpMethod", httpMethod);
-            request.put("description", description);
-            request.put("persianName", persianName);
-            request.put("isCritical", false);
-            request.put("isPublic", false);
-            
-            String requestBody = objectMapper.writeValueAsString(request);
+            String requestBody = objectMapper.writeValueAsString(Map.of("projectName", projectName, "apis", apis));
             
             HttpRequest httpRequest = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8083/api/acl/register"))
+                    .uri(URI.create("http://localhost:8083/acl/api/acl/register/bulk"))
                     .header("Content-Type", "application/json")
                     .POST(HttpRequest.BodyPublishers.ofString(requestBody))
                     .timeout(Duration.ofSeconds(10))
@@ -83,7 +87,7 @@ public class AclRegistrationService {
                 Map<String, Object> responseBody = objectMapper.readValue(response.body(), Map.class);
                 Boolean success = (Boolean) responseBody.get("success");
                 
-                log.debug("Method registered: {} - {} at {}", service, method, apiPath);
+                log.debug("Manifest registered for {}: {}", projectName, responseBody.get("result"));
                 return success != null && success;
             } else {
                 log.warn("ACL registration returned status: {}", response.statusCode());
@@ -91,7 +95,7 @@ public class AclRegistrationService {
             }
             
         } catch (Exception e) {
-            log.error("Failed to register method {}: {}", method, e.getMessage());
+            log.error("Failed to register manifest for {}: {}", projectName, e.getMessage());
             return false;
         }
     }
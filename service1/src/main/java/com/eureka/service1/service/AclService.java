@@ -1,5 +1,6 @@
 package com.eureka.service1.service;
 
+import com.eureka.service1.util.RequestDeadline;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
@@ -13,20 +14,27 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ACL Service for @PreAuthorize
- * Checks permissions with ACL service using HttpClient
+ * Checks permissions with ACL service using HttpClient; concurrent checks are
+ * batched by AclCheckBatcher unless acl.check.batching.enabled=false
  */
 @Service("aclService")
 @RequiredArgsConstructor
 @Log4j2
 public class AclService {
 
+    private static final Duration ACL_TIMEOUT = Duration.ofSeconds(10);
+
     @Value("${spring.application.name}")
     private String appName;
+    @Value("${acl.check.batching.enabled:true}")
+    private boolean batchingEnabled;
     private final ObjectMapper objectMapper;
     private final HttpClient httpClient;
+    private final AclCheckBatcher aclCheckBatcher;
 
 
     /**
@@ -38,6 +46,23 @@ public class AclService {
             log.info("Checking ACL permission for user: {} resource: {} action: {} apiPath: {} method: {}", 
                     username, resource, action, apiPath, httpMethod);
 
+            // Never wait on ACL longer than the caller is willing to wait for us
+            Duration timeout = RequestDeadline.remaining(ACL_TIMEOUT);
+            if (timeout.isZero()) {
+                log.warn("Request deadline exceeded before ACL check for user: {}", username);
+                return false;
+            }
+
+            if (batchingEnabled) {
+                // Coalesced with concurrent checks into one /check/batch request
+                boolean hasPermission = aclCheckBatcher.check(username, appName, apiPath, httpMethod, resource,
+                                System.currentTimeMillis() + timeout.toMillis())
+                        .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                log.info("ACL check result: {} for user: {} project: {} api: {} method: {}",
+                        hasPermission, username, appName, apiPath, httpMethod);
+                return hasPermission;
+            }
+
             // Prepare request for ACL service
             Map<String, String> request = new HashMap<>();
             request.put("username", username);
@@ -52,7 +77,8 @@ public class AclService {
                     .uri(URI.create("http://localhost:8083/acl/api/acl/check"))
                     .header("Content-Type", "application/json")
                     .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                    .timeout(Duration.ofSeconds(10))
+                    .header(RequestDeadline.DEADLINE_HEADER, String.valueOf(System.currentTimeMillis() + timeout.toMillis()))
+                    .timeout(timeout)
                     .build();
             
             HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
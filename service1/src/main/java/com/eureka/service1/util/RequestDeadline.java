@@ -0,0 +1,42 @@
+package com.eureka.service1.util;
+
+import java.time.Duration;
+
+/**
+ * Absolute request deadline stamped by the gateway (X-Request-Deadline, epoch millis)
+ * Held per request thread by RequestDeadlineFilter; outbound calls use it to cap their timeouts.
+ */
+public final class RequestDeadline {
+
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static void set(long deadlineMillis) {
+        DEADLINE.set(deadlineMillis);
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    public static boolean isExpired() {
+        Long deadline = DEADLINE.get();
+        return deadline != null && deadline <= System.currentTimeMillis();
+    }
+
+    /**
+     * Remaining budget of the current request, never more than the given timeout
+     */
+    public static Duration remaining(Duration timeout) {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return timeout;
+        }
+        long remaining = deadline - System.currentTimeMillis();
+        return remaining < timeout.toMillis() ? Duration.ofMillis(Math.max(remaining, 0)) : timeout;
+    }
+}
@@ -0,0 +1,116 @@
+package com.mahdi.sso.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt encoder whose work factor is calibrated to a target hash time on this machine
+ * upgradeEncoding() reports every hash whose cost differs from the current one
+ * (higher or lower), so logins can transparently re-hash stored passwords.
+ *
+ * Calibration runs real hashes, so it happens on a background thread: the encoder
+ * starts at the minimum strength and switches once the calibrated cost is known.
+ */
+@Log4j2
+public class CalibratedBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private volatile BCryptPasswordEncoder delegate;
+    private volatile int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        setStrength(strength);
+    }
+
+    /**
+     * Encoder at minStrength that calibrates in the background and then switches to the result
+     */
+    public static CalibratedBCryptPasswordEncoder calibrating(long targetMillis, int minStrength, int maxStrength) {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(minStrength);
+        Thread calibration = new Thread(
+                () -> encoder.setStrength(calibrate(targetMillis, minStrength, maxStrength)), "bcrypt-calibration");
+        calibration.setDaemon(true);
+        calibration.setPriority(Thread.MIN_PRIORITY);
+        calibration.start();
+        return encoder;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = costOf(encodedPassword);
+        return cost > 0 && cost != strength;
+    }
+
+    private void setStrength(int strength) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Highest cost between min and max whose hash time stays within the target;
+     * min when even that is slower than the target
+     */
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        // Warm up the JIT so the first measurement is not inflated
+        BCrypt.hashpw(CALIBRATION_PASSWORD, BCrypt.gensalt(4));
+
+        int chosen = minStrength;
+        for (int cost = minStrength; cost <= maxStrength; cost++) {
+            long elapsed = measure(cost);
+            log.info("BCrypt calibration: cost {} took {} ms", cost, elapsed);
+            if (elapsed > targetMillis) {
+                break;
+            }
+            chosen = cost;
+            // Each cost step doubles the work; stop before running a hash that is certainly too slow
+            if (elapsed * 2 > targetMillis) {
+                break;
+            }
+        }
+        log.info("BCrypt calibrated to cost {} for a target of {} ms", chosen, targetMillis);
+        return chosen;
+    }
+
+    private static long measure(int cost) {
+        String salt = BCrypt.gensalt(cost);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(CALIBRATION_PASSWORD, salt);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+
+    /**
+     * Cost of a $2a$/$2b$/$2y$ hash, or -1 when the value is not a BCrypt hash
+     */
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7
+                || !encodedPassword.startsWith("$2") || encodedPassword.charAt(3) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
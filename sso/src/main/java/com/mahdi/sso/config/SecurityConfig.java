@@ -1,20 +1,50 @@
 package com.mahdi.sso.config;
 
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
 @Configuration
 @EnableWebSecurity
+@Log4j2
 public class SecurityConfig {
+
+    private static final String SERVICE_SECRET_HEADER = "X-Service-Secret";
+
+    // 0 = calibrate in the background to the target hash time (min-strength until then)
+    @Value("${sso.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${sso.bcrypt.target-hash-time:150}")
+    private long bcryptTargetHashTime;
+
+    @Value("${sso.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${sso.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
+    // Shared secret sent by services in SERVICE_SECRET_HEADER; empty = endpoint closed
+    @Value("${sso.revocation.client-secret:}")
+    private String revocationClientSecret;
     
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        if (bcryptStrength > 0) {
+            log.info("Using configured BCrypt strength {}", bcryptStrength);
+            return new CalibratedBCryptPasswordEncoder(bcryptStrength);
+        }
+        return CalibratedBCryptPasswordEncoder.calibrating(bcryptTargetHashTime, bcryptMinStrength, bcryptMaxStrength);
     }
     
     @Bean
@@ -26,6 +56,11 @@ public class SecurityConfig {
                         "/api/auth/login",
                         "/api/auth/validate",
                         "/api/auth/public-key",
+                        "/api/auth/jwks",
+                        "/api/auth/logout",
+                        "/api/auth/token-cache/stats",
+                        "/api/auth/password-hashing/stats",
+                        "/api/auth/user-cache/stats",
                         "/api/auth/health",
                         "/",
                         "/v3/api-docs/**",
@@ -37,10 +72,22 @@ public class SecurityConfig {
                         "/swagger-ui/**",
                         "/swagger-ui.html/**"
                 ).permitAll()
+                // Revocation list (revoked jtis, disabled users) is for other services only
+                .requestMatchers("/api/auth/revocations").access((authentication, context) ->
+                        new AuthorizationDecision(hasServiceSecret(context.getRequest())))
                 .requestMatchers("/api/users/**").authenticated()
                 .anyRequest().authenticated()
             );
         
         return http.build();
     }
+
+    private boolean hasServiceSecret(HttpServletRequest request) {
+        String presented = request.getHeader(SERVICE_SECRET_HEADER);
+        if (revocationClientSecret.isEmpty() || presented == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(revocationClientSecret.getBytes(StandardCharsets.UTF_8),
+                presented.getBytes(StandardCharsets.UTF_8));
+    }
 } 
\ No newline at end of file
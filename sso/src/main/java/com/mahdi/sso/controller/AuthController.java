@@ -2,13 +2,22 @@ package com.mahdi.sso.controller;
 
 import com.mahdi.sso.dto.LoginRequest;
 import com.mahdi.sso.dto.LoginResponse;
+import com.mahdi.sso.dto.TokenValidationResult;
 import com.mahdi.sso.service.AuthService;
+import com.mahdi.sso.service.PasswordHashingRejectedException;
 import com.mahdi.sso.util.JwtUtil;
+import com.mahdi.sso.util.SigningKeyProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.Map;
 
 @RestController
@@ -19,12 +28,24 @@ public class AuthController {
     
     private final AuthService authService;
     private final JwtUtil jwtUtil;
+    private final SigningKeyProvider signingKeyProvider;
+
+    @Value("${jwt.jwks.max-age:3600}")
+    private long jwksMaxAge;
 
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest loginRequest) {
         log.info("Login request received for user: {}", loginRequest.getUsername());
         
-        LoginResponse response = authService.login(loginRequest);
+        LoginResponse response;
+        try {
+            response = authService.login(loginRequest);
+        } catch (PasswordHashingRejectedException e) {
+            log.warn("Login rejected for user: {} - {}", loginRequest.getUsername(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new LoginResponse("Login temporarily unavailable, please retry", false));
+        }
         
         if (response.isSuccess()) {
             log.info("Login successful for user: {}", loginRequest.getUsername());
@@ -36,23 +57,19 @@ public class AuthController {
     }
     
     @PostMapping("/validate")
-    public ResponseEntity<Map<String, Object>> validateToken(@RequestBody Map<String, String> request) {
+    public ResponseEntity<TokenValidationResult> validateToken(@RequestBody Map<String, String> request) {
         String token = request.get("token");
         log.info("Token validation request received");
         
         if (token == null || token.isEmpty()) {
             log.warn("Token validation failed - No token provided");
-            Map<String, Object> errorResponse = Map.of(
-                "valid", false,
-                "message", "No token provided",
-                "username", null
-            );
-            return ResponseEntity.badRequest().body(errorResponse);
+            return ResponseEntity.badRequest().body(
+                    TokenValidationResult.invalid(TokenValidationResult.REASON_MISSING, "No token provided"));
         }
         
-        Map<String, Object> response = authService.validateToken(token);
+        TokenValidationResult response = authService.validateToken(token);
         
-        if (Boolean.TRUE.equals(response.get("valid"))) {
+        if (response.isValid()) {
             log.info("Token validation successful");
             return ResponseEntity.ok(response);
         } else {
@@ -61,6 +78,29 @@ public class AuthController {
         }
     }
     
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logout(@RequestBody Map<String, String> request) {
+        String token = request.get("token");
+        log.info("Logout request received");
+        
+        if (token == null || token.isEmpty() || !authService.logout(token)) {
+            log.warn("Logout failed - invalid or missing token");
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Invalid or missing token"));
+        }
+        return ResponseEntity.ok(Map.of("success", true, "message", "Logout successful"));
+    }
+    
+    /**
+     * Revocation list for validators: full snapshot with Bloom filter for since=0,
+     * otherwise the revocations newer than the given version minus a lookback window
+     * (ids are assigned before commit, so a late commit can carry a lower id); apply idempotently
+     * Callers must send the shared service secret (see SecurityConfig)
+     */
+    @GetMapping("/revocations")
+    public ResponseEntity<Map<String, Object>> getRevocations(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(authService.getRevocations(since));
+    }
+    
     @GetMapping("/public-key")
     public ResponseEntity<Map<String, String>> getPublicKey() {
         log.info("Public key request received");
@@ -76,9 +116,44 @@ public class AuthController {
         }
     }
     
+    /**
+     * JWK Set with every key that can still verify tokens (current and rotated-out keys)
+     * Clients cache it for max-age and revalidate with If-None-Match (304 when unchanged)
+     */
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, Object>> getJwks(WebRequest request) {
+        String etag = signingKeyProvider.getJwksETag();
+        if (request.checkNotModified(etag)) {
+            log.debug("JWKS not modified");
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(jwksMaxAge)).cachePublic())
+                .body(signingKeyProvider.getJwks());
+    }
+    
+    @GetMapping("/password-hashing/stats")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStats() {
+        return ResponseEntity.ok(authService.getPasswordHashingStats());
+    }
+    
+    @GetMapping("/token-cache/stats")
+    public ResponseEntity<Map<String, Object>> getTokenCacheStats() {
+        return ResponseEntity.ok(authService.getTokenCacheStats());
+    }
+    
+    @GetMapping("/user-cache/stats")
+    public ResponseEntity<Map<String, Object>> getUserCacheStats() {
+        return ResponseEntity.ok(authService.getUserCacheStats());
+    }
+    
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         log.info("Health check request received");
+        if (!signingKeyProvider.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("SSO Service is starting - signing keys not loaded");
+        }
         return ResponseEntity.ok("SSO Service is running");
     }
 } 
\ No newline at end of file
@@ -1,6 +1,6 @@
 package com.mahdi.sso.controller;
 
-import com.mahdi.sso.util.RsaKeyGenerator;
+import com.mahdi.sso.util.SigningKeyProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -20,7 +20,7 @@ import java.util.Map;
 public class PublicKeyController {
     
 
-    private final RsaKeyGenerator rsaKeyGenerator;
+    private final SigningKeyProvider signingKeyProvider;
     /**
      * Expose SSO public key for signature verification
      * This endpoint is called by Service1 to get the public key for verifying signatures
@@ -31,7 +31,7 @@ public class PublicKeyController {
             log.info("Public key requested by Service1");
             
             // Get the public key from RSA key generator
-            PublicKey publicKey = rsaKeyGenerator.getPublicKey();
+            PublicKey publicKey = signingKeyProvider.getPublicKey();
             
             if (publicKey == null) {
                 log.error("Public key not available");
@@ -47,6 +47,7 @@ public class PublicKeyController {
             Map<String, Object> response = new HashMap<>();
             response.put("publicKey", publicKeyString);
             response.put("algorithm", publicKey.getAlgorithm());
+            response.put("jwtAlgorithm", signingKeyProvider.getAlgorithm().name());
             response.put("format", publicKey.getFormat());
             response.put("timestamp", System.currentTimeMillis());
             response.put("message", "SSO public key for signature verification");
@@ -69,7 +70,7 @@ public class PublicKeyController {
     @GetMapping("/public-key/health")
     public ResponseEntity<Map<String, Object>> getPublicKeyHealth() {
         try {
-            PublicKey publicKey = rsaKeyGenerator.getPublicKey();
+            PublicKey publicKey = signingKeyProvider.getPublicKey();
             boolean isAvailable = publicKey != null;
             
             Map<String, Object> response = new HashMap<>();
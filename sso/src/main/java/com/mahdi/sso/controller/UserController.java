@@ -2,17 +2,26 @@ package com.mahdi.sso.controller;
 
 import com.mahdi.sso.dto.CreateUserRequest;
 import com.mahdi.sso.dto.CreateUserResponse;
+import com.mahdi.sso.service.BulkUserProvisioningService;
 import com.mahdi.sso.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Controller for user management operations
@@ -24,7 +33,13 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "User Management", description = "APIs for user management operations")
 public class UserController {
     
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    
     private final UserService userService;
+    private final BulkUserProvisioningService bulkUserProvisioningService;
+    
+    @Value("${sso.bulk.request-timeout:1800000}")
+    private long bulkRequestTimeout;
     
     /**
      * Create a new user
@@ -50,6 +65,48 @@ public class UserController {
         }
     }
     
+    /**
+     * Bulk import users from an NDJSON or CSV body, streaming one NDJSON result per row
+     * Runs as an async task with its own (long) timeout; other async requests keep the default
+     */
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"}, produces = "application/x-ndjson")
+    @Operation(summary = "Bulk create users",
+            description = "Imports users from NDJSON ({\"username\",\"password\"} per line) or CSV (username,password) "
+                    + "and streams back one result per input row")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed; see per-row status"),
+            @ApiResponse(responseCode = "415", description = "Unsupported content type")
+    })
+    public WebAsyncTask<Void> bulkCreateUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean csv = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(TEXT_CSV);
+        log.info("Received bulk user import ({})", csv ? "CSV" : "NDJSON");
+        
+        InputStream input = request.getInputStream();
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(bulkRequestTimeout, () -> {
+            bulkUserProvisioningService.provision(input, csv, response.getOutputStream());
+            return null;
+        });
+    }
+    
+    /**
+     * Disable a user and revoke its tokens
+     */
+    @PutMapping("/{username}/disable")
+    @Operation(summary = "Disable a user", description = "Disables the user and revokes every token issued to it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User disabled successfully"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<Boolean> disableUser(@PathVariable String username) {
+        log.info("Received request to disable user: {}", username);
+        
+        if (!userService.disableUser(username)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(true);
+    }
+    
     /**
      * Check if user exists
      */
@@ -0,0 +1,26 @@
+package com.mahdi.sso.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one input row of a bulk user import
+ * line is the 1-based line number in the uploaded body; status is one of the STATUS_* constants.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserResult {
+
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_EXISTS = "EXISTS";
+    public static final String STATUS_DUPLICATE = "DUPLICATE";
+    public static final String STATUS_INVALID = "INVALID";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private long line;
+    private String username;
+    private String status;
+    private String message;
+}
@@ -0,0 +1,40 @@
+package com.mahdi.sso.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a single token verification
+ * username is the token subject; tokenId is the jti claim; issuedAt and expiresAt
+ * are the iat and exp claims in epoch millis.
+ * reason is null for valid tokens, otherwise one of the REASON_* constants.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenValidationResult {
+
+    public static final String REASON_MISSING = "MISSING";
+    public static final String REASON_EXPIRED = "EXPIRED";
+    public static final String REASON_BAD_SIGNATURE = "BAD_SIGNATURE";
+    public static final String REASON_MALFORMED = "MALFORMED";
+    public static final String REASON_INVALID = "INVALID";
+    public static final String REASON_REVOKED = "REVOKED";
+
+    private boolean valid;
+    private String message;
+    private String username;
+    private Long expiresAt;
+    private String reason;
+    private String tokenId;
+    private Long issuedAt;
+
+    public static TokenValidationResult valid(String username, String tokenId, Long issuedAt, Long expiresAt) {
+        return new TokenValidationResult(true, "Token is valid", username, expiresAt, null, tokenId, issuedAt);
+    }
+
+    public static TokenValidationResult invalid(String reason, String message) {
+        return new TokenValidationResult(false, message, null, null, reason, null, null);
+    }
+}
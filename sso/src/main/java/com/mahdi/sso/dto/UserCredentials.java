@@ -0,0 +1,13 @@
+package com.mahdi.sso.dto;
+
+import com.mahdi.sso.entity.User;
+
+/**
+ * Immutable snapshot of the fields login and existence checks need from a user row
+ */
+public record UserCredentials(Long id, String username, String passwordHash, boolean enabled) {
+
+    public static UserCredentials of(User user) {
+        return new UserCredentials(user.getId(), user.getUsername(), user.getPassword(), user.isEnabled());
+    }
+}
@@ -0,0 +1,35 @@
+package com.mahdi.sso.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A revoked token (jti set) or a user-wide revocation (username and revokedBefore set)
+ * revokedBefore and expiresAt are epoch milliseconds.
+ */
+@Entity
+@Table(name = "token_revocations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "jti")
+    private String tokenId;
+
+    private String username;
+
+    @Column(name = "revoked_before")
+    private Long revokedBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+
+    private String reason;
+}
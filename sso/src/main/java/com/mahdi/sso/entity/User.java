@@ -21,4 +21,7 @@ public class User {
     
     @Column(nullable = false)
     private String password;
+    
+    @Column(nullable = false)
+    private boolean enabled = true;
 } 
\ No newline at end of file
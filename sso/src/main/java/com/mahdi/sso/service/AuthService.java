@@ -2,15 +2,17 @@ package com.mahdi.sso.service;
 
 import com.mahdi.sso.dto.LoginRequest;
 import com.mahdi.sso.dto.LoginResponse;
+import com.mahdi.sso.dto.TokenValidationResult;
+import com.mahdi.sso.dto.UserCredentials;
 import com.mahdi.sso.entity.User;
 import com.mahdi.sso.repository.UserRepository;
 import com.mahdi.sso.util.JwtUtil;
+import com.mahdi.sso.util.UserCredentialCache;
+import com.mahdi.sso.util.VerifiedTokenCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -20,19 +22,29 @@ import java.util.Optional;
 public class AuthService {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserCredentialCache userCredentialCache;
     
     public LoginResponse login(LoginRequest loginRequest) {
         log.info("Login attempt for user: {}", loginRequest.getUsername());
         
-        Optional<User> userOptional = userRepository.findByUsername(loginRequest.getUsername());
+        Optional<UserCredentials> credentialsOptional =
+                userCredentialCache.get(loginRequest.getUsername(), userRepository::findByUsername);
         
-        if (userOptional.isPresent()) {
-            User user = userOptional.get();
+        if (credentialsOptional.isPresent()) {
+            UserCredentials credentials = credentialsOptional.get();
+            
+            if (!credentials.enabled()) {
+                log.warn("Login failed for user: {} - User disabled", loginRequest.getUsername());
+                return new LoginResponse("User is disabled", false);
+            }
             
-            if (passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-                String token = jwtUtil.generateToken(user.getUsername());
+            if (passwordHashingService.matches(loginRequest.getPassword(), credentials.passwordHash())) {
+                rehashIfNeeded(credentials, loginRequest.getPassword());
+                String token = jwtUtil.generateToken(credentials.username());
                 log.info("Login successful for user: {}", loginRequest.getUsername());
                 return new LoginResponse(token);
             } else {
@@ -45,32 +57,80 @@ public class AuthService {
         }
     }
     
-    public Map<String, Object> validateToken(String token) {
-        log.info("Validating token");
-        
-        Map<String, Object> response = new HashMap<>();
-        
+    /**
+     * Re-hashes the password with the current BCrypt cost; a failure here never fails the login
+     */
+    private void rehashIfNeeded(UserCredentials credentials, String rawPassword) {
+        if (!passwordHashingService.needsRehash(credentials.passwordHash())) {
+            return;
+        }
         try {
-            if (jwtUtil.validateToken(token)) {
-                String username = jwtUtil.extractUsername(token);
-                log.info("Token validation successful for user: {}", username);
-                
-                response.put("valid", true);
-                response.put("message", "Token is valid");
-                response.put("username", username);
-            } else {
-                log.warn("Token validation failed - Invalid token");
-                response.put("valid", false);
-                response.put("message", "Invalid token");
-                response.put("username", null);
+            Optional<User> userOptional = userRepository.findById(credentials.id());
+            if (userOptional.isEmpty()) {
+                return;
             }
+            User user = userOptional.get();
+            user.setPassword(passwordHashingService.encode(rawPassword));
+            userRepository.save(user);
+            userCredentialCache.invalidate(user.getUsername());
+            log.info("Password re-hashed with current BCrypt cost for user: {}", user.getUsername());
         } catch (Exception e) {
-            log.error("Error validating token: {}", e.getMessage());
-            response.put("valid", false);
-            response.put("message", "Error validating token: " + e.getMessage());
-            response.put("username", null);
+            log.warn("Could not re-hash password for user: {} - {}", credentials.username(), e.getMessage());
+        }
+    }
+    
+    public Map<String, Object> getPasswordHashingStats() {
+        return passwordHashingService.getStats();
+    }
+    
+    public Map<String, Object> getTokenCacheStats() {
+        return verifiedTokenCache.getStats();
+    }
+    
+    public Map<String, Object> getUserCacheStats() {
+        return userCredentialCache.getStats();
+    }
+    
+    public TokenValidationResult validateToken(String token) {
+        log.debug("Validating token");
+
+        TokenValidationResult result = verifiedTokenCache.get(token);
+        if (result != null) {
+            log.debug("Token validation served from cache for user: {}", result.getUsername());
+        } else {
+            result = jwtUtil.verify(token);
+            verifiedTokenCache.put(token, result);
+        }
+        
+        // Cached results are checked too: a token can be revoked after it was first verified
+        if (result.isValid() && tokenRevocationService.isRevoked(result)) {
+            log.warn("Token validation failed - token revoked for user: {}", result.getUsername());
+            return TokenValidationResult.invalid(TokenValidationResult.REASON_REVOKED, "Token revoked");
         }
         
-        return response;
+        if (result.isValid()) {
+            log.info("Token validation successful for user: {}", result.getUsername());
+        } else {
+            log.warn("Token validation failed - {}", result.getReason());
+        }
+        return result;
+    }
+    
+    /**
+     * Revokes the given token; returns false when it was not a valid token
+     */
+    public boolean logout(String token) {
+        TokenValidationResult result = validateToken(token);
+        if (!result.isValid()) {
+            return false;
+        }
+        tokenRevocationService.revokeToken(result.getTokenId(), result.getUsername(), result.getExpiresAt(), "LOGOUT");
+        verifiedTokenCache.invalidate(token);
+        log.info("Logout successful for user: {}", result.getUsername());
+        return true;
+    }
+    
+    public Map<String, Object> getRevocations(long sinceVersion) {
+        return tokenRevocationService.getDelta(sinceVersion);
     }
 } 
\ No newline at end of file
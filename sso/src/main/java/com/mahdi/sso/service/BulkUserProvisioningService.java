@@ -0,0 +1,244 @@
+package com.mahdi.sso.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mahdi.sso.dto.BulkUserResult;
+import com.mahdi.sso.dto.CreateUserRequest;
+import com.mahdi.sso.repository.UserRepository;
+import com.mahdi.sso.util.UserCredentialCache;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Streaming bulk user import
+ * The body is read in chunks; per chunk, existing usernames are found with one IN query,
+ * passwords are hashed in parallel on the shared BCrypt pool (bounded to its bulk share,
+ * see PasswordHashingService) and new users are
+ * inserted with one JDBC batch. One result line per input row is written back as soon
+ * as its chunk is done, so neither the input nor the results are held in memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class BulkUserProvisioningService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (username, password, enabled, create_by) VALUES (?, ?, TRUE, 'bulk-import') "
+                    + "ON CONFLICT (username) DO NOTHING";
+
+    private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserCredentialCache userCredentialCache;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${sso.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Imports users from NDJSON ({"username":..,"password":..} per line) or CSV
+     * (username,password per line, optional header) and writes one NDJSON result per row
+     */
+    public void provision(InputStream input, boolean csv, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        long created = 0;
+        long total = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (csv && lineNumber == 1 && isCsvHeader(line))) {
+                continue;
+            }
+            chunk.add(parse(lineNumber, line, csv));
+            if (chunk.size() >= chunkSize) {
+                created += processChunk(chunk, output);
+                total += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += processChunk(chunk, output);
+            total += chunk.size();
+        }
+        log.info("Bulk import finished: {} rows, {} users created", total, created);
+    }
+
+    private long processChunk(List<Row> chunk, OutputStream output) throws IOException {
+        // Reject invalid rows and repeats within the chunk, then drop usernames that already exist
+        Set<String> seen = new HashSet<>();
+        List<Row> candidates = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (row.result() != null) {
+                continue;
+            }
+            if (!seen.add(row.request().getUsername())) {
+                row.reject(BulkUserResult.STATUS_DUPLICATE, "Username repeated in the import");
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            Set<String> existing = userRepository.findExistingUsernames(
+                    candidates.stream().map(row -> row.request().getUsername()).toList());
+            candidates.removeIf(row -> {
+                if (existing.contains(row.request().getUsername())) {
+                    row.reject(BulkUserResult.STATUS_EXISTS, "Username already exists");
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        long created = candidates.isEmpty() ? 0 : insert(candidates);
+
+        for (Row row : chunk) {
+            output.write(objectMapper.writeValueAsBytes(row.result()));
+            output.write('\n');
+        }
+        output.flush();
+        return created;
+    }
+
+    private long insert(List<Row> rows) {
+        try {
+            List<String> hashes = passwordHashingService.encodeAll(
+                    rows.stream().map(row -> row.request().getPassword()).toList());
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).passwordHash = hashes.get(i);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rows.forEach(row -> row.reject(BulkUserResult.STATUS_FAILED, "Import interrupted"));
+            return 0;
+        } catch (ExecutionException e) {
+            log.error("Password hashing failed during bulk import: {}", e.getCause().getMessage());
+            rows.forEach(row -> row.reject(BulkUserResult.STATUS_FAILED, "Password hashing failed"));
+            return 0;
+        }
+
+        int[] counts;
+        try {
+            counts = jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    statement.setString(1, rows.get(i).request().getUsername());
+                    statement.setString(2, rows.get(i).passwordHash);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows.size();
+                }
+            });
+        } catch (Exception e) {
+            log.error("Batch insert failed during bulk import: {}", e.getMessage());
+            rows.forEach(row -> row.reject(BulkUserResult.STATUS_FAILED, "Insert failed"));
+            return 0;
+        }
+
+        long created = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            // 0 rows: inserted concurrently by someone else between the IN query and the batch
+            if (counts[i] == 0) {
+                row.reject(BulkUserResult.STATUS_EXISTS, "Username already exists");
+            } else if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                row.accept();
+                userCredentialCache.invalidate(row.request().getUsername());
+                created++;
+            } else {
+                row.reject(BulkUserResult.STATUS_FAILED, "Insert failed");
+            }
+        }
+        return created;
+    }
+
+    private Row parse(long lineNumber, String line, boolean csv) {
+        CreateUserRequest request;
+        try {
+            request = csv ? parseCsv(line) : objectMapper.readValue(line, CreateUserRequest.class);
+        } catch (Exception e) {
+            return Row.invalid(lineNumber, null, "Unparseable row");
+        }
+
+        Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return Row.invalid(lineNumber, request.getUsername(), violations.iterator().next().getMessage());
+        }
+        return new Row(lineNumber, request);
+    }
+
+    /**
+     * username,password - only the first comma separates, so passwords may contain commas
+     */
+    private static CreateUserRequest parseCsv(String line) {
+        int comma = line.indexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("Missing password column");
+        }
+        return new CreateUserRequest(line.substring(0, comma).trim(), line.substring(comma + 1));
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return line.trim().equalsIgnoreCase("username,password");
+    }
+
+    private static final class Row {
+        private final long line;
+        private final CreateUserRequest request;
+        private BulkUserResult result;
+        private String passwordHash;
+
+        Row(long line, CreateUserRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+
+        static Row invalid(long line, String username, String message) {
+            Row row = new Row(line, null);
+            row.result = new BulkUserResult(line, username, BulkUserResult.STATUS_INVALID, message);
+            return row;
+        }
+
+        CreateUserRequest request() {
+            return request;
+        }
+
+        BulkUserResult result() {
+            return result;
+        }
+
+        void accept() {
+            result = new BulkUserResult(line, request.getUsername(), BulkUserResult.STATUS_CREATED, "User created");
+        }
+
+        void reject(String status, String message) {
+            result = new BulkUserResult(line, request.getUsername(), status, message);
+        }
+    }
+}
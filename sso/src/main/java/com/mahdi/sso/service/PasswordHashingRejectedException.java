@@ -0,0 +1,15 @@
+package com.mahdi.sso.service;
+
+/**
+ * Thrown when the password hashing pool is saturated and a login cannot be served in time
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,202 @@
+package com.mahdi.sso.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs BCrypt hashing on a dedicated, bounded pool
+ * The pool is sized to the CPU cores with a bounded queue, so a login storm can
+ * only occupy that many cores; excess logins are rejected immediately instead of
+ * tying up the request threads that serve token validation.
+ * Bulk hashing (user import) shares the same pool but may only have bulk-threads
+ * tasks in it at a time, so logins always keep the rest of the threads and the queue.
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${sso.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${sso.password-hashing.queue-capacity:0}")
+    private int queueCapacity;
+
+    @Value("${sso.password-hashing.wait-timeout:5000}")
+    private long waitTimeoutMillis;
+
+    @Value("${sso.password-hashing.bulk-threads:0}")
+    private int bulkThreads;
+
+    private ThreadPoolExecutor executor;
+    private Semaphore bulkPermits;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int capacity = queueCapacity > 0 ? queueCapacity : poolSize * 2;
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Half the pool by default, so an import never takes all of the cores away from logins
+        int bulk = bulkThreads > 0 ? Math.min(bulkThreads, poolSize) : Math.max(1, poolSize / 2);
+        bulkPermits = new Semaphore(bulk);
+        log.info("Password hashing pool started with {} threads, queue capacity {} and {} bulk threads",
+                poolSize, capacity, bulk);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(String rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Hashes many passwords on the shared pool, in order, with at most bulk-threads of them
+     * in the pool at once; waits for pool room instead of failing when logins fill the queue
+     */
+    public List<String> encodeAll(List<String> rawPasswords) throws InterruptedException, ExecutionException {
+        // Submitted tasks are never cancelled: each releases its permit when it runs, and at
+        // most bulk-threads of them are outstanding if the caller gives up early
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            bulkPermits.acquire();
+            try {
+                futures.add(submitBulk(() -> {
+                    try {
+                        return passwordEncoder.encode(rawPassword);
+                    } finally {
+                        bulkPermits.release();
+                    }
+                }));
+            } catch (InterruptedException e) {
+                bulkPermits.release();
+                throw e;
+            }
+        }
+        List<String> hashes = new ArrayList<>(futures.size());
+        for (Future<String> future : futures) {
+            hashes.add(future.get());
+        }
+        return hashes;
+    }
+
+    /**
+     * True when the stored hash was made with a different cost than the current one
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    public Map<String, Object> getStats() {
+        long count = completed.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", executor.getCorePoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        stats.put("completed", count);
+        stats.put("rejected", rejected.sum());
+        stats.put("avgHashMillis", count == 0 ? 0.0 : totalHashNanos.sum() / 1_000_000.0 / count);
+        stats.put("maxHashMillis", maxHashNanos.get() / 1_000_000.0);
+        stats.put("avgQueueWaitMillis", count == 0 ? 0.0 : totalQueueWaitNanos.sum() / 1_000_000.0 / count);
+        stats.put("maxQueueWaitMillis", maxQueueWaitNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    private Future<String> submitBulk(Callable<String> hashing) throws InterruptedException {
+        while (true) {
+            try {
+                return executor.submit(hashing);
+            } catch (RejectedExecutionException e) {
+                // Queue full of logins: let them go first
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private <T> T execute(Callable<T> hashing) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return hashing.call();
+                } finally {
+                    long queueWait = startedAt - submittedAt;
+                    long hashTime = System.nanoTime() - startedAt;
+                    totalQueueWaitNanos.add(queueWait);
+                    totalHashNanos.add(hashTime);
+                    maxQueueWaitNanos.accumulateAndGet(queueWait, Math::max);
+                    maxHashNanos.accumulateAndGet(hashTime, Math::max);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing pool saturated, rejecting request");
+            throw new PasswordHashingRejectedException("Password hashing pool is saturated", e);
+        }
+
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            log.warn("Password hashing did not complete within {} ms", waitTimeoutMillis);
+            throw new PasswordHashingRejectedException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.mahdi.sso.service;
+
+import com.mahdi.sso.dto.TokenValidationResult;
+import com.mahdi.sso.entity.TokenRevocation;
+import com.mahdi.sso.repository.TokenRevocationRepository;
+import com.mahdi.sso.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Token revocation store
+ * Revocations (logout of one token, or all tokens of a disabled user) are persisted
+ * and mirrored in memory as an exact set plus a Bloom filter. The common case - a
+ * token that was never revoked - is answered by a few Bloom filter probes.
+ *
+ * Each revocation is versioned by its row id, so validators can fetch a full snapshot
+ * once and then only the delta since the last version they have seen. Ids are handed
+ * out at insert time, not at commit time: a revocation with a lower id can become
+ * visible after a higher one. Both the sync between instances and the delta therefore
+ * re-read the last sync-lookback ids below the version; entries are deduplicated by id.
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class TokenRevocationService {
+
+    private static final String TOKEN_PREFIX = "jti:";
+    private static final String USER_PREFIX = "sub:";
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    @Value("${jwt.expiration:86400000}")
+    private long jwtExpiration;
+
+    @Value("${sso.revocation.expected-entries:10000}")
+    private int expectedEntries;
+
+    @Value("${sso.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${sso.revocation.sync-lookback:1000}")
+    private long syncLookback;
+
+    private final ConcurrentSkipListMap<Long, TokenRevocation> entries = new ConcurrentSkipListMap<>();
+    private volatile Set<String> revokedTokenIds = ConcurrentHashMap.newKeySet();
+    private volatile Map<String, Long> userRevokedBefore = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile long version;
+
+    @PostConstruct
+    public void init() {
+        bloomFilter = BloomFilter.create(expectedEntries, falsePositiveRate);
+        synchronize();
+        log.info("Token revocation store loaded: {} active revocations, version {}", entries.size(), version);
+    }
+
+    /**
+     * Revokes one token until it would have expired anyway
+     */
+    public void revokeToken(String tokenId, String username, Long expiresAt, String reason) {
+        if (tokenId == null) {
+            log.warn("Cannot revoke a token without jti for user: {}", username);
+            return;
+        }
+        long expiry = expiresAt != null ? expiresAt : System.currentTimeMillis() + jwtExpiration;
+        save(new TokenRevocation(null, tokenId, username, null, expiry, reason));
+        log.info("Token {} of user {} revoked ({})", tokenId, username, reason);
+    }
+
+    /**
+     * Revokes every token of the user issued up to now
+     */
+    public void revokeUser(String username, String reason) {
+        long now = System.currentTimeMillis();
+        save(new TokenRevocation(null, null, username, now, now + jwtExpiration, reason));
+        log.info("All tokens of user {} revoked ({})", username, reason);
+    }
+
+    public boolean isRevoked(TokenValidationResult result) {
+        return isRevoked(result.getTokenId(), result.getUsername(), result.getIssuedAt());
+    }
+
+    public boolean isRevoked(String tokenId, String username, Long issuedAt) {
+        BloomFilter filter = bloomFilter;
+        boolean tokenMayBeRevoked = tokenId != null && filter.mightContain(TOKEN_PREFIX + tokenId);
+        boolean userMayBeRevoked = username != null && filter.mightContain(USER_PREFIX + username);
+        if (!tokenMayBeRevoked && !userMayBeRevoked) {
+            return false;
+        }
+        if (tokenMayBeRevoked && revokedTokenIds.contains(tokenId)) {
+            return true;
+        }
+        if (userMayBeRevoked) {
+            Long revokedBefore = userRevokedBefore.get(username);
+            return revokedBefore != null && (issuedAt == null || issuedAt <= revokedBefore);
+        }
+        return false;
+    }
+
+    /**
+     * Revocations newer than the given version minus the lookback window (callers must
+     * apply entries idempotently); version 0 returns the full snapshot together with the Bloom filter
+     */
+    public Map<String, Object> getDelta(long sinceVersion) {
+        long now = System.currentTimeMillis();
+        long from = sinceVersion <= 0 ? 0 : Math.max(0, sinceVersion - syncLookback);
+        List<Map<String, Object>> delta = new ArrayList<>();
+        for (TokenRevocation revocation : entries.tailMap(from, false).values()) {
+            if (revocation.getExpiresAt() > now) {
+                delta.add(toMap(revocation));
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("version", version);
+        response.put("full", sinceVersion <= 0);
+        response.put("entries", delta);
+        if (sinceVersion <= 0) {
+            BloomFilter filter = bloomFilter;
+            Map<String, Object> bloom = new LinkedHashMap<>();
+            bloom.put("numBits", filter.getNumBits());
+            bloom.put("numHashes", filter.getNumHashes());
+            bloom.put("hash", "fnv1a64-double");
+            bloom.put("keyPrefixes", Map.of("token", TOKEN_PREFIX, "user", USER_PREFIX));
+            bloom.put("bits", Base64.getEncoder().encodeToString(filter.toByteArray()));
+            response.put("bloomFilter", bloom);
+        }
+        return response;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Picks up revocations written by other SSO instances, including ones committed late
+     * with an id below the current version (up to sync-lookback ids back)
+     */
+    @Scheduled(fixedDelayString = "${sso.revocation.sync-interval:10000}")
+    public synchronized void synchronize() {
+        List<TokenRevocation> newer = tokenRevocationRepository.findByIdGreaterThanAndExpiresAtGreaterThanOrderByIdAsc(
+                Math.max(0, version - syncLookback), System.currentTimeMillis());
+        newer.forEach(this::apply);
+    }
+
+    /**
+     * Drops expired revocations and rebuilds the Bloom filter without them
+     */
+    @Scheduled(fixedDelayString = "${sso.revocation.prune-interval:3600000}")
+    @Transactional
+    public synchronized void prune() {
+        long now = System.currentTimeMillis();
+        int deleted = tokenRevocationRepository.deleteExpired(now);
+        entries.values().removeIf(revocation -> revocation.getExpiresAt() <= now);
+        rebuild();
+        log.info("Pruned {} expired token revocations, {} remain", deleted, entries.size());
+    }
+
+    private synchronized void save(TokenRevocation revocation) {
+        apply(tokenRevocationRepository.save(revocation));
+    }
+
+    private void apply(TokenRevocation revocation) {
+        if (entries.putIfAbsent(revocation.getId(), revocation) != null) {
+            return;
+        }
+        index(revocation, bloomFilter, revokedTokenIds, userRevokedBefore);
+        version = Math.max(version, revocation.getId());
+        if (entries.size() > bloomFilter.getCapacity()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Builds new exact sets and filter off to the side and swaps them in, so concurrent
+     * readers never observe a partially rebuilt state
+     */
+    private void rebuild() {
+        BloomFilter filter = BloomFilter.create(Math.max(expectedEntries, entries.size() * 2), falsePositiveRate);
+        Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+        Map<String, Long> users = new ConcurrentHashMap<>();
+        entries.values().forEach(revocation -> index(revocation, filter, tokenIds, users));
+        revokedTokenIds = tokenIds;
+        userRevokedBefore = users;
+        bloomFilter = filter;
+    }
+
+    private static void index(TokenRevocation revocation, BloomFilter filter,
+                              Set<String> tokenIds, Map<String, Long> users) {
+        if (revocation.getTokenId() != null) {
+            tokenIds.add(revocation.getTokenId());
+            filter.put(TOKEN_PREFIX + revocation.getTokenId());
+        } else if (revocation.getUsername() != null && revocation.getRevokedBefore() != null) {
+            users.merge(revocation.getUsername(), revocation.getRevokedBefore(), Math::max);
+            filter.put(USER_PREFIX + revocation.getUsername());
+        }
+    }
+
+    private static Map<String, Object> toMap(TokenRevocation revocation) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("version", revocation.getId());
+        entry.put("tokenId", revocation.getTokenId());
+        entry.put("username", revocation.getUsername());
+        entry.put("revokedBefore", revocation.getRevokedBefore());
+        entry.put("expiresAt", revocation.getExpiresAt());
+        return entry;
+    }
+}
@@ -4,11 +4,14 @@ import com.mahdi.sso.dto.CreateUserRequest;
 import com.mahdi.sso.dto.CreateUserResponse;
 import com.mahdi.sso.entity.User;
 import com.mahdi.sso.repository.UserRepository;
+import com.mahdi.sso.util.UserCredentialCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 /**
  * Service for user management operations
  */
@@ -19,6 +22,8 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserCredentialCache userCredentialCache;
     
     /**
      * Create a new user
@@ -28,7 +33,7 @@ public class UserService {
             log.info("Creating user with username: {}", request.getUsername());
             
             // Check if user already exists
-            if (userRepository.findByUsername(request.getUsername()).isPresent()) {
+            if (userExists(request.getUsername())) {
                 log.warn("User with username '{}' already exists", request.getUsername());
                 return CreateUserResponse.error("Username already exists");
             }
@@ -39,6 +44,8 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
             
             User savedUser = userRepository.save(user);
+            // Drop the negative entry cached by the existence check above
+            userCredentialCache.invalidate(savedUser.getUsername());
             log.info("User created successfully with ID: {}", savedUser.getId());
             
             return CreateUserResponse.success(savedUser.getId(), savedUser.getUsername());
@@ -49,11 +56,30 @@ public class UserService {
         }
     }
     
+    /**
+     * Disable a user and revoke every token issued to it
+     */
+    public boolean disableUser(String username) {
+        Optional<User> userOptional = userRepository.findByUsername(username);
+        if (userOptional.isEmpty()) {
+            log.warn("Cannot disable unknown user: {}", username);
+            return false;
+        }
+        
+        User user = userOptional.get();
+        user.setEnabled(false);
+        userRepository.save(user);
+        userCredentialCache.invalidate(username);
+        tokenRevocationService.revokeUser(username, "USER_DISABLED");
+        log.info("User disabled: {}", username);
+        return true;
+    }
+    
     /**
      * Check if user exists by username
      */
     public boolean userExists(String username) {
-        return userRepository.findByUsername(username).isPresent();
+        return userCredentialCache.get(username, userRepository::findByUsername).isPresent();
     }
 }
 
@@ -0,0 +1,105 @@
+package com.mahdi.sso.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings
+ * Probe positions use double hashing on the 64-bit FNV-1a hash of the UTF-8 bytes:
+ * position(i) = (h1 + i * h2) mod numBits, with h1/h2 the low/high 32 bits
+ * (a negative combination is bit-inverted). Validators can rebuild the same
+ * probes from numBits and numHashes.
+ */
+public class BloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray bits;
+    private final int numBits;
+    private final int numHashes;
+    private final int capacity;
+
+    private BloomFilter(int numBits, int numHashes, int capacity) {
+        this.bits = new AtomicLongArray((numBits + 63) / 64);
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+        this.capacity = capacity;
+    }
+
+    public static BloomFilter create(int expectedEntries, double falsePositiveRate) {
+        int entries = Math.max(1, expectedEntries);
+        int numBits = (int) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int numHashes = Math.max(1, (int) Math.round((double) numBits / entries * Math.log(2)));
+        return new BloomFilter(Math.max(64, numBits), numHashes, entries);
+    }
+
+    public void put(String value) {
+        long hash = fnv1a(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int position = position(h1, h2, i);
+            long mask = 1L << position;
+            int index = position >>> 6;
+            long current;
+            do {
+                current = bits.get(index);
+            } while ((current & mask) == 0 && !bits.compareAndSet(index, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = fnv1a(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int position = position(h1, h2, i);
+            if ((bits.get(position >>> 6) & (1L << position)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Bit array as big-endian 64-bit words
+     */
+    public byte[] toByteArray() {
+        ByteBuffer buffer = ByteBuffer.allocate(bits.length() * 8);
+        for (int i = 0; i < bits.length(); i++) {
+            buffer.putLong(bits.get(i));
+        }
+        return buffer.array();
+    }
+
+    private int position(int h1, int h2, int i) {
+        int combined = h1 + i * h2;
+        if (combined < 0) {
+            combined = ~combined;
+        }
+        return combined % numBits;
+    }
+
+    private static long fnv1a(String value) {
+        long hash = FNV_OFFSET;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
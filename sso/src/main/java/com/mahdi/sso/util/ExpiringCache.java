@@ -0,0 +1,96 @@
+package com.mahdi.sso.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Bounded map whose entries carry an absolute expiry time (epoch millis)
+ * Expired entries are dropped on read. When the map is full, expired entries are purged
+ * first and then the oldest tenth (by insertion) is removed by key, so an eviction costs
+ * one sort of the entries instead of a scan per removed entry.
+ * Reads are lock-free; only eviction is serialized.
+ */
+public class ExpiringCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final LongAdder evictions = new LongAdder();
+    private final int maxSize;
+
+    public ExpiringCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Value for the key, or null when absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    public void put(K key, V value, long expiresAt) {
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(key, new Entry<>(value, expiresAt, System.nanoTime()));
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public void removeIf(Predicate<V> predicate) {
+        entries.values().removeIf(entry -> predicate.test(entry.value()));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private synchronized void evict() {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+
+        // Still full: drop the oldest tenth of the entries
+        int overflow = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        if (overflow > 0) {
+            List<Map.Entry<K, Entry<V>>> snapshot = new ArrayList<>(entries.entrySet());
+            snapshot.sort(Comparator.comparingLong(mapEntry -> mapEntry.getValue().insertedAt()));
+            for (Map.Entry<K, Entry<V>> oldest : snapshot.subList(0, Math.min(overflow, snapshot.size()))) {
+                entries.remove(oldest.getKey(), oldest.getValue());
+            }
+        }
+        evictions.add(before - entries.size());
+    }
+
+    private record Entry<V>(V value, long expiresAt, long insertedAt) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.mahdi.sso.util;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+
+/**
+ * Supported JWS signing algorithms
+ * RS256 - RSA 2048 (default, compatible with existing keys)
+ * ES256 - ECDSA P-256, raw R||S signature
+ * EdDSA - Ed25519
+ */
+public enum JwtAlgorithm {
+
+    RS256("RSA", "SHA256withRSA"),
+    ES256("EC", "SHA256withECDSAinP1363Format"),
+    EdDSA("Ed25519", "Ed25519");
+
+    private final String keyAlgorithm;
+    private final String signatureAlgorithm;
+
+    JwtAlgorithm(String keyAlgorithm, String signatureAlgorithm) {
+        this.keyAlgorithm = keyAlgorithm;
+        this.signatureAlgorithm = signatureAlgorithm;
+    }
+
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public String getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    public KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm);
+            switch (this) {
+                case RS256 -> generator.initialize(2048);
+                case ES256 -> generator.initialize(new ECGenParameterSpec("secp256r1"));
+                case EdDSA -> {
+                    // Ed25519 has a fixed key size
+                }
+            }
+            return generator.generateKeyPair();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to generate " + name() + " key pair", e);
+        }
+    }
+
+    public static JwtAlgorithm fromName(String name) {
+        for (JwtAlgorithm algorithm : values()) {
+            if (algorithm.name().equalsIgnoreCase(name)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported JWT algorithm: " + name);
+    }
+}
@@ -1,107 +1,95 @@
 package com.mahdi.sso.util;
 
+import com.mahdi.sso.dto.TokenValidationResult;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.PrivateKey;
+import java.security.Key;
 import java.security.PublicKey;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Function;
 
 @Component
-@RequiredArgsConstructor
 @Log4j2
 public class JwtUtil {
     
-    private final RsaKeyGenerator rsaKeyGenerator;
+    private final SigningKeyProvider signingKeyProvider;
+
+    // JwtParser is immutable and thread-safe; the verification key is resolved per token from its kid
+    private final JwtParser parser;
 
     @Value("${jwt.expiration:86400000}")
     private long jwtExpiration;
+
+    public JwtUtil(SigningKeyProvider signingKeyProvider) {
+        this.signingKeyProvider = signingKeyProvider;
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        PublicKey key = signingKeyProvider.findVerificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key id: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
     
     public String generateToken(String username) {
         log.info("Generating JWT token for user: {}", username);
         
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, username);
-    }
-    
-    private String createToken(Map<String, Object> claims, String subject) {
         try {
-            PrivateKey privateKey = rsaKeyGenerator.getPrivateKey();
-            
-            return Jwts.builder()
-                    .setClaims(claims)
-                    .setSubject(subject)
-                    .setIssuedAt(new Date(System.currentTimeMillis()))
-                    .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                    .signWith(privateKey, SignatureAlgorithm.RS256)
-                    .compact();
+            long now = System.currentTimeMillis();
+            return signingKeyProvider.getMinter().mint(username, now, now + jwtExpiration);
         } catch (Exception e) {
             log.error("Error generating JWT token: {}", e.getMessage());
             throw new RuntimeException("Failed to generate JWT token", e);
         }
     }
     
-    public Boolean validateToken(String token) {
+    /**
+     * Parses and verifies the token exactly once and returns subject and expiry with the verdict
+     */
+    public TokenValidationResult verify(String token) {
         try {
-            log.debug("Validating JWT token");
-            PublicKey publicKey = rsaKeyGenerator.getPublicKey();
-            
-            Jwts.parserBuilder()
-                    .setSigningKey(publicKey)
-                    .build()
-                    .parseClaimsJws(token);
-            
-            log.debug("JWT token is valid");
-            return true;
-        } catch (Exception e) {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Date issuedAt = claims.getIssuedAt();
+            Date expiration = claims.getExpiration();
+            return TokenValidationResult.valid(claims.getSubject(), claims.getId(),
+                    issuedAt != null ? issuedAt.getTime() : null,
+                    expiration != null ? expiration.getTime() : null);
+        } catch (ExpiredJwtException e) {
+            log.debug("JWT token expired: {}", e.getMessage());
+            return TokenValidationResult.invalid(TokenValidationResult.REASON_EXPIRED, "Token expired");
+        } catch (SignatureException e) {
+            log.warn("JWT token signature invalid: {}", e.getMessage());
+            return TokenValidationResult.invalid(TokenValidationResult.REASON_BAD_SIGNATURE, "Invalid token signature");
+        } catch (MalformedJwtException | UnsupportedJwtException | IllegalArgumentException e) {
+            log.warn("JWT token malformed: {}", e.getMessage());
+            return TokenValidationResult.invalid(TokenValidationResult.REASON_MALFORMED, "Malformed token");
+        } catch (JwtException e) {
             log.warn("JWT token validation failed: {}", e.getMessage());
-            return false;
-        }
-    }
-    
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-    
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-    
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        try {
-            PublicKey publicKey = rsaKeyGenerator.getPublicKey();
-            
-            final Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(publicKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            return claimsResolver.apply(claims);
-        } catch (Exception e) {
-            log.error("Error extracting claim from JWT token: {}", e.getMessage());
-            return null;
+            return TokenValidationResult.invalid(TokenValidationResult.REASON_INVALID, "Invalid token");
         }
     }
-    
-    private Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            log.error("Error checking token expiration: {}", e.getMessage());
-            return true;
-        }
+
+    public Boolean validateToken(String token) {
+        return verify(token).isValid();
     }
     
     public String getPublicKeyForValidation() {
-        return rsaKeyGenerator.getPublicKeyAsPem();
+        return signingKeyProvider.getPublicKeyAsPem();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.mahdi.sso.util;
+
+import java.security.KeyPair;
+import java.time.Instant;
+
+/**
+ * One token signing key
+ * retiredAt is null while the key is used for signing; a retired key only verifies
+ * until expiresAt, so tokens it signed stay valid through the overlap window.
+ */
+public record SigningKey(String kid, JwtAlgorithm algorithm, KeyPair keyPair, TokenMinter minter,
+                         Instant createdAt, Instant retiredAt, Instant expiresAt) {
+
+    public SigningKey retire(Instant now, Instant verifiableUntil) {
+        return new SigningKey(kid, algorithm, keyPair, minter, createdAt, now, verifiableUntil);
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,261 @@
+package com.mahdi.sso.util;
+
+import io.jsonwebtoken.JwtException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Key ring for token signing and verification
+ * The newest key signs; keys rotated out stay available for verification for the
+ * overlap window (by default the token lifetime). Every key has a kid that is
+ * stamped into the token header and published through the JWKS endpoint.
+ *
+ * RS256 starts from the persisted key pair of RsaKeyGenerator; ES256 and EdDSA
+ * key pairs, and all rotated keys, are generated at runtime.
+ * The key ring is built once the initial key pair is available; until then isReady()
+ * is false and callers that need a key wait for it.
+ */
+@Component
+@Log4j2
+public class SigningKeyProvider {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtAlgorithm algorithm;
+    private final Duration overlap;
+    private final boolean rotationEnabled;
+
+    private final CompletableFuture<KeySet> initialKeySet;
+    private volatile KeySet keySet;
+
+    public SigningKeyProvider(RsaKeyGenerator rsaKeyGenerator,
+                              @Value("${jwt.algorithm:RS256}") String algorithmName,
+                              @Value("${jwt.expiration:86400000}") long jwtExpiration,
+                              @Value("${jwt.rotation.overlap:0}") long overlapMillis,
+                              @Value("${jwt.rotation.enabled:false}") boolean rotationEnabled) {
+        this.algorithm = JwtAlgorithm.fromName(algorithmName);
+        this.overlap = Duration.ofMillis(overlapMillis > 0 ? overlapMillis : jwtExpiration);
+        this.rotationEnabled = rotationEnabled;
+
+        CompletableFuture<KeyPair> initial;
+        if (algorithm == JwtAlgorithm.RS256) {
+            initial = rsaKeyGenerator.getKeyPairFuture();
+        } else {
+            log.warn("Generating in-memory {} signing key; tokens will not survive a restart", algorithm);
+            initial = CompletableFuture.supplyAsync(algorithm::generateKeyPair);
+        }
+        this.initialKeySet = initial.thenApply(keyPair -> {
+            KeySet initialSet = KeySet.of(List.of(newKey(keyPair)));
+            synchronized (this) {
+                keySet = initialSet;
+            }
+            log.info("JWT signing algorithm: {}, kid: {}", algorithm, initialSet.current().kid());
+            return initialSet;
+        });
+    }
+
+    public boolean isReady() {
+        return keySet != null;
+    }
+
+    /**
+     * Current key ring, waiting for the initial key pair if it is still being loaded
+     */
+    private KeySet keySet() {
+        KeySet current = keySet;
+        return current != null ? current : initialKeySet.join();
+    }
+
+    /**
+     * Generates a new signing key; the previous one keeps verifying for the overlap window
+     */
+    @Scheduled(fixedDelayString = "${jwt.rotation.interval:86400000}",
+            initialDelayString = "${jwt.rotation.interval:86400000}")
+    public void scheduledRotation() {
+        if (!isReady()) {
+            return;
+        }
+        if (rotationEnabled) {
+            rotate();
+        } else {
+            removeExpiredKeys();
+        }
+    }
+
+    public synchronized void rotate() {
+        Instant now = Instant.now();
+        List<SigningKey> keys = new ArrayList<>();
+        for (SigningKey key : keySet().keys()) {
+            if (key.isExpired(now)) {
+                continue;
+            }
+            keys.add(key.retiredAt() == null ? key.retire(now, now.plus(overlap)) : key);
+        }
+        SigningKey next = newKey(algorithm.generateKeyPair());
+        keys.add(next);
+        keySet = KeySet.of(keys);
+        log.info("Rotated JWT signing key, new kid: {}, active keys: {}", next.kid(), keys.size());
+    }
+
+    private synchronized void removeExpiredKeys() {
+        Instant now = Instant.now();
+        List<SigningKey> keys = keySet().keys().stream().filter(key -> !key.isExpired(now)).toList();
+        if (keys.size() != keySet().keys().size()) {
+            keySet = KeySet.of(keys);
+            log.info("Removed expired JWT verification keys, active keys: {}", keys.size());
+        }
+    }
+
+    public JwtAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public SigningKey getCurrentKey() {
+        return keySet().current();
+    }
+
+    public TokenMinter getMinter() {
+        return keySet().current().minter();
+    }
+
+    /**
+     * Verification key for a token; tokens without kid are checked against the current key
+     * If the key ring could not be loaded the token is rejected as a JwtException, not a 500
+     */
+    public PublicKey findVerificationKey(String kid) {
+        KeySet current;
+        try {
+            current = keySet();
+        } catch (CompletionException e) {
+            throw new JwtException("Signing keys unavailable: " + e.getCause().getMessage(), e.getCause());
+        }
+        if (kid == null) {
+            return current.current().keyPair().getPublic();
+        }
+        SigningKey key = current.byKid().get(kid);
+        return key != null && !key.isExpired(Instant.now()) ? key.keyPair().getPublic() : null;
+    }
+
+    public PublicKey getPublicKey() {
+        return keySet().current().keyPair().getPublic();
+    }
+
+    public String getPublicKeyAsPem() {
+        return "-----BEGIN PUBLIC KEY-----\n" +
+                Base64.getEncoder().encodeToString(getPublicKey().getEncoded()) +
+                "\n-----END PUBLIC KEY-----";
+    }
+
+    /**
+     * JWK Set of all keys that can still verify tokens
+     */
+    public Map<String, Object> getJwks() {
+        return keySet().jwks();
+    }
+
+    /**
+     * Strong ETag of the current JWK Set; changes whenever a key is added or removed
+     */
+    public String getJwksETag() {
+        return keySet().etag();
+    }
+
+    private SigningKey newKey(KeyPair keyPair) {
+        String kid = keyId(keyPair.getPublic());
+        return new SigningKey(kid, algorithm, keyPair, new TokenMinter(algorithm, keyPair.getPrivate(), kid),
+                Instant.now(), null, null);
+    }
+
+    private static String keyId(PublicKey publicKey) {
+        return BASE64_URL.encodeToString(Arrays.copyOf(sha256(publicKey.getEncoded()), 16));
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Map<String, Object> toJwk(SigningKey key) {
+        PublicKey publicKey = key.keyPair().getPublic();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (publicKey instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", BASE64_URL.encodeToString(unsigned(rsa.getModulus(), 0)));
+            jwk.put("e", BASE64_URL.encodeToString(unsigned(rsa.getPublicExponent(), 0)));
+        } else if (publicKey instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", BASE64_URL.encodeToString(unsigned(ec.getW().getAffineX(), 32)));
+            jwk.put("y", BASE64_URL.encodeToString(unsigned(ec.getW().getAffineY(), 32)));
+        } else {
+            // Ed25519 SubjectPublicKeyInfo ends with the 32-byte raw public key
+            byte[] encoded = publicKey.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", BASE64_URL.encodeToString(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+        }
+        jwk.put("use", "sig");
+        jwk.put("alg", key.algorithm().name());
+        jwk.put("kid", key.kid());
+        return jwk;
+    }
+
+    /**
+     * Big-endian unsigned bytes, left-padded to length when length > 0
+     */
+    private static byte[] unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (length > bytes.length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            return padded;
+        }
+        return bytes;
+    }
+
+    private record KeySet(List<SigningKey> keys, SigningKey current, Map<String, SigningKey> byKid,
+                          Map<String, Object> jwks, String etag) {
+
+        static KeySet of(List<SigningKey> keys) {
+            Map<String, SigningKey> byKid = new LinkedHashMap<>();
+            List<Map<String, Object>> jwkList = new ArrayList<>();
+            StringBuilder kids = new StringBuilder();
+            for (SigningKey key : keys) {
+                byKid.put(key.kid(), key);
+                jwkList.add(toJwk(key));
+                kids.append(key.kid()).append(',');
+            }
+            String etag = "\"" + BASE64_URL.encodeToString(
+                    Arrays.copyOf(sha256(kids.toString().getBytes(StandardCharsets.UTF_8)), 12)) + "\"";
+            return new KeySet(List.copyOf(keys), keys.get(keys.size() - 1), Map.copyOf(byKid),
+                    Map.of("keys", List.copyOf(jwkList)), etag);
+        }
+    }
+}
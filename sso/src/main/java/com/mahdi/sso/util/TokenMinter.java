@@ -0,0 +1,75 @@
+package com.mahdi.sso.util;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Direct JWS compact serialization for one signing key
+ * The Base64URL header segment is constant per key and computed once; the claims
+ * (jti, sub, iat, exp) are written straight to bytes without building a claims map.
+ */
+public class TokenMinter {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtAlgorithm algorithm;
+    private final PrivateKey privateKey;
+    private final byte[] headerSegment;
+
+    public TokenMinter(JwtAlgorithm algorithm, PrivateKey privateKey, String keyId) {
+        this.algorithm = algorithm;
+        this.privateKey = privateKey;
+
+        StringBuilder header = new StringBuilder("{\"alg\":\"").append(algorithm.name()).append('"');
+        if (keyId != null) {
+            header.append(",\"kid\":\"").append(new String(JsonStringEncoder.getInstance().quoteAsString(keyId))).append('"');
+        }
+        header.append(",\"typ\":\"JWT\"}");
+        this.headerSegment = BASE64_URL.encode(header.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String mint(String subject, long issuedAtMillis, long expiresAtMillis) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(96);
+        payload.writeBytes(("{\"jti\":\"" + UUID.randomUUID() + "\",\"sub\":\"").getBytes(StandardCharsets.US_ASCII));
+        payload.writeBytes(JsonStringEncoder.getInstance().quoteAsUTF8(subject));
+        payload.writeBytes(("\",\"iat\":" + issuedAtMillis / 1000 + ",\"exp\":" + expiresAtMillis / 1000 + "}")
+                .getBytes(StandardCharsets.US_ASCII));
+        byte[] payloadSegment = BASE64_URL.encode(payload.toByteArray());
+
+        byte[] signingInput = new byte[headerSegment.length + 1 + payloadSegment.length];
+        System.arraycopy(headerSegment, 0, signingInput, 0, headerSegment.length);
+        signingInput[headerSegment.length] = '.';
+        System.arraycopy(payloadSegment, 0, signingInput, headerSegment.length + 1, payloadSegment.length);
+
+        byte[] signatureSegment = BASE64_URL.encode(sign(signingInput));
+
+        byte[] token = new byte[signingInput.length + 1 + signatureSegment.length];
+        System.arraycopy(signingInput, 0, token, 0, signingInput.length);
+        token[signingInput.length] = '.';
+        System.arraycopy(signatureSegment, 0, token, signingInput.length + 1, signatureSegment.length);
+        return new String(token, StandardCharsets.US_ASCII);
+    }
+
+    public JwtAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    private byte[] sign(byte[] signingInput) {
+        try {
+            // Signature instances are not thread-safe; they are cheap to obtain per token
+            Signature signature = Signature.getInstance(algorithm.getSignatureAlgorithm());
+            signature.initSign(privateKey);
+            signature.update(signingInput);
+            return signature.sign();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Failed to sign JWT token with " + algorithm, e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mahdi.sso.util;
+
+import com.mahdi.sso.dto.UserCredentials;
+import com.mahdi.sso.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache of user credentials (id, password hash, enabled flag) keyed by username
+ * Unknown usernames are cached as negative entries with a shorter TTL so repeated
+ * lookups of non-existent users do not reach the database.
+ * Entries written through UserService are invalidated explicitly; changes made by
+ * another instance become visible after the TTL.
+ */
+@Component
+public class UserCredentialCache {
+
+    // Optional.empty() is a negative entry for an unknown username
+    private final ExpiringCache<String, Optional<UserCredentials>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+
+    public UserCredentialCache(@Value("${sso.user-cache.enabled:true}") boolean enabled,
+                               @Value("${sso.user-cache.max-size:10000}") int maxSize,
+                               @Value("${sso.user-cache.ttl:60000}") long ttlMillis,
+                               @Value("${sso.user-cache.negative-ttl:10000}") long negativeTtlMillis) {
+        this.enabled = enabled;
+        this.entries = new ExpiringCache<>(maxSize);
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+    }
+
+    /**
+     * Returns the cached credentials for the username, loading and caching them on a miss
+     */
+    public Optional<UserCredentials> get(String username, Function<String, Optional<User>> loader) {
+        if (!enabled) {
+            return loader.apply(username).map(UserCredentials::of);
+        }
+        Optional<UserCredentials> cached = entries.get(username);
+        if (cached != null) {
+            if (cached.isEmpty()) {
+                negativeHits.increment();
+            } else {
+                hits.increment();
+            }
+            return cached;
+        }
+        misses.increment();
+
+        Optional<UserCredentials> credentials = loader.apply(username).map(UserCredentials::of);
+        long ttl = credentials.isPresent() ? ttlMillis : negativeTtlMillis;
+        entries.put(username, credentials, System.currentTimeMillis() + ttl);
+        return credentials;
+    }
+
+    public void invalidate(String username) {
+        entries.remove(username);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long negativeHitCount = negativeHits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + negativeHitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", entries.size());
+        stats.put("maxSize", entries.getMaxSize());
+        stats.put("hits", hitCount);
+        stats.put("negativeHits", negativeHitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) (hitCount + negativeHitCount) / total);
+        stats.put("evictions", entries.getEvictions());
+        return stats;
+    }
+}
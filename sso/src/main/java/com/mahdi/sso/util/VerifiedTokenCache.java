@@ -0,0 +1,91 @@
+package com.mahdi.sso.util;
+
+import com.mahdi.sso.dto.TokenValidationResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of successfully verified tokens
+ * Keyed by the SHA-256 digest of the token (the raw token is never stored).
+ * An entry lives until the token's exp claim; size bound and eviction are handled
+ * by ExpiringCache.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final ExpiringCache<String, TokenValidationResult> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final boolean enabled;
+
+    public VerifiedTokenCache(@Value("${sso.token-cache.enabled:true}") boolean enabled,
+                              @Value("${sso.token-cache.max-size:10000}") int maxSize) {
+        this.enabled = enabled;
+        this.entries = new ExpiringCache<>(maxSize);
+    }
+
+    public TokenValidationResult get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        TokenValidationResult result = entries.get(digest(token));
+        if (result == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return result;
+    }
+
+    /**
+     * Caches a valid result until its expiry; invalid results and tokens without exp are not cached
+     */
+    public void put(String token, TokenValidationResult result) {
+        if (!enabled || !result.isValid() || result.getExpiresAt() == null
+                || result.getExpiresAt() <= System.currentTimeMillis()) {
+            return;
+        }
+        entries.put(digest(token), result, result.getExpiresAt());
+    }
+
+    public void invalidate(String token) {
+        entries.remove(digest(token));
+    }
+
+    public void invalidateUser(String username) {
+        entries.removeIf(result -> username.equals(result.getUsername()));
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", entries.size());
+        stats.put("maxSize", entries.getMaxSize());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", entries.getEvictions());
+        return stats;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
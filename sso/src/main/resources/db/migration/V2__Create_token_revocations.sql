@@ -0,0 +1,16 @@
+-- Allow users to be disabled
+ALTER TABLE users ADD COLUMN enabled BOOLEAN NOT NULL DEFAULT TRUE;
+
+-- Revoked tokens (by jti) and user-wide revocations (tokens issued before revoked_before)
+-- Times are epoch milliseconds; rows are pruned once expires_at has passed
+CREATE TABLE token_revocations (
+    id BIGSERIAL PRIMARY KEY,
+    jti VARCHAR(64),
+    username VARCHAR(255),
+    revoked_before BIGINT,
+    expires_at BIGINT NOT NULL,
+    reason VARCHAR(64),
+    create_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_token_revocations_expires_at ON token_revocations(expires_at);
@@ -0,0 +1,98 @@
+package com.mahdi.sso.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+	@Test
+	void neverReportsAnInsertedValueAsAbsent() {
+		BloomFilter filter = BloomFilter.create(10_000, 0.01);
+		List<String> inserted = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			String jti = UUID.randomUUID().toString();
+			inserted.add(jti);
+			filter.put(jti);
+		}
+
+		assertThat(inserted).allMatch(filter::mightContain);
+	}
+
+	@Test
+	void noFalseNegativesWhenFilledPastCapacity() {
+		BloomFilter filter = BloomFilter.create(100, 0.01);
+		List<String> inserted = new ArrayList<>();
+		for (int i = 0; i < 5_000; i++) {
+			String value = "token-" + i;
+			inserted.add(value);
+			filter.put(value);
+		}
+
+		assertThat(inserted).allMatch(filter::mightContain);
+	}
+
+	@Test
+	void noFalseNegativesForConcurrentInserts() throws InterruptedException {
+		BloomFilter filter = BloomFilter.create(20_000, 0.01);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int thread = 0; thread < 8; thread++) {
+			int offset = thread;
+			executor.execute(() -> {
+				for (int i = 0; i < 2_500; i++) {
+					filter.put("jti-" + offset + "-" + i);
+				}
+			});
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+		for (int thread = 0; thread < 8; thread++) {
+			for (int i = 0; i < 2_500; i++) {
+				assertThat(filter.mightContain("jti-" + thread + "-" + i)).isTrue();
+			}
+		}
+	}
+
+	@Test
+	void handlesNonAsciiAndEmptyValues() {
+		BloomFilter filter = BloomFilter.create(10, 0.01);
+		filter.put("");
+		filter.put("توکن-باطل-شده");
+
+		assertThat(filter.mightContain("")).isTrue();
+		assertThat(filter.mightContain("توکن-باطل-شده")).isTrue();
+	}
+
+	@Test
+	void falsePositiveRateStaysNearConfiguredRate() {
+		BloomFilter filter = BloomFilter.create(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("revoked-" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (filter.mightContain("active-" + i)) {
+				falsePositives++;
+			}
+		}
+		// 1% configured; allow generous slack so the test is not flaky
+		assertThat(falsePositives).isLessThan(300);
+	}
+
+	@Test
+	void emptyFilterContainsNothing() {
+		BloomFilter filter = BloomFilter.create(1_000, 0.01);
+
+		assertThat(filter.mightContain("anything")).isFalse();
+		assertThat(filter.toByteArray()).hasSize((filter.getNumBits() + 63) / 64 * 8);
+	}
+}